@@ -0,0 +1,38 @@
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Runs the benchmarks with the JMH command line, writing the results as JSON to
+ * jmh-result.json unless another result format or file is given, so that runs
+ * can be compared to catch regressions.
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args the JMH command line options, e.g. a benchmark name pattern or -p size=9x9:10
+     * @throws Exception if JMH fails to run the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-rf")) {
+            options.addAll(Arrays.asList("-rf", "json"));
+        }
+        if (!options.contains("-rff")) {
+            options.addAll(Arrays.asList("-rff", "jmh-result.json"));
+        }
+        Main.main(options.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,202 @@
+package minesweeper;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the hot paths of a round: placing the mines, starting a board, which
+ * places the mines, counts the neighbouring mines and reveals the first area,
+ * revealing an opening, detecting a win and one step of the solver.
+ *
+ * <p>
+ * Every benchmark runs on the same boards, played from the centre, at the sizes
+ * of the difficulty levels and at large custom sizes. The seed is the first one
+ * from SEED on whose board a win can be set up. The neighbour count has no entry
+ * point of its own; it is the difference between start and place.
+ * </p>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardEngineBenchmark {
+    private static final long SEED = 42;
+
+    /**
+     * The board of a benchmark, started once from the centre.
+     */
+    @State(Scope.Benchmark)
+    public static class Board {
+        @Param({ "9x9:10", "16x16:40", "256x256:10486", "2000x2000:640000" })
+        public String size;
+
+        int width, height, mines, startCell, openingCell, lastCell;
+        long seed;
+        BoardEngine started;
+
+        /**
+         * Parses the size and finds a board with a cell that no opening reveals,
+         * which is left for last to win, and a hidden cell to flood from.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            String[] parts = size.split("[x:]");
+            width = Integer.parseInt(parts[0]);
+            height = Integer.parseInt(parts[1]);
+            mines = Integer.parseInt(parts[2]);
+            startCell = (height / 2) * width + width / 2;
+            lastCell = -1;
+            for (seed = SEED; lastCell < 0; seed++) {
+                started = start();
+                openingCell = -1;
+                for (int cell = started.getCellCount() - 1; cell >= 0; cell--) {
+                    if (started.isMine(cell) || started.getCellState(cell) == BoardEngine.REVEALED) {
+                        continue;
+                    }
+                    if (lastCell < 0 && !nextToOpening(cell)) {
+                        lastCell = cell;
+                    }
+                    if (openingCell < 0 || started.getSurroundingMines(cell) == 0) {
+                        openingCell = cell; // a hidden safe cell, preferably one that opens an area
+                    }
+                }
+            }
+            seed--;
+        }
+
+        /**
+         * Returns whether a cell has no mine around it or is next to such a cell,
+         * so that it is revealed along with an opening.
+         */
+        private boolean nextToOpening(int cell) {
+            int x = started.getX(cell), y = started.getY(cell);
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    if (started.isValidCoordinate(x + dx, y + dy)) {
+                        int next = started.index(x + dx, y + dy);
+                        if (!started.isMine(next) && started.getSurroundingMines(next) == 0) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns a new engine started from the centre.
+         */
+        BoardEngine start() {
+            BoardEngine engine = new BoardEngine(width, height, mines);
+            engine.start(engine.getX(startCell), engine.getY(startCell), false, seed);
+            return engine;
+        }
+    }
+
+    /**
+     * A freshly started board, for the benchmarks that change it.
+     */
+    @State(Scope.Thread)
+    public static class FreshBoard {
+        BoardEngine engine;
+
+        /**
+         * Starts a new board before every call.
+         * @param board the board of the benchmark
+         */
+        @Setup(Level.Invocation)
+        public void setUp(Board board) {
+            engine = board.start();
+        }
+    }
+
+    /**
+     * A board with a single safe cell left hidden.
+     */
+    @State(Scope.Thread)
+    public static class AlmostWonBoard {
+        BoardEngine engine;
+
+        /**
+         * Reveals every safe cell but the last one before every call.
+         * @param board the board of the benchmark
+         */
+        @Setup(Level.Invocation)
+        public void setUp(Board board) {
+            engine = board.start();
+            for (int cell = 0; cell < engine.getCellCount(); cell++) {
+                if (cell != board.lastCell && !engine.isMine(cell)) {
+                    engine.reveal(cell);
+                }
+            }
+        }
+    }
+
+    /**
+     * Picks the cells of the mines.
+     * @param board the board of the benchmark
+     * @return the placed mines
+     */
+    @Benchmark
+    public int[] place(Board board) {
+        return MinePlacer.place(board.width, board.height, board.mines, board.startCell, board.seed);
+    }
+
+    /**
+     * Places the mines, counts the neighbouring mines and reveals the first area.
+     * @param board the board of the benchmark
+     * @return the started engine
+     */
+    @Benchmark
+    public BoardEngine start(Board board) {
+        return board.start();
+    }
+
+    /**
+     * Reveals a cell left hidden by the first click, flooding its opening.
+     * @param board the board of the benchmark
+     * @param fresh a freshly started copy of the board
+     * @return the outcome of the move
+     */
+    @Benchmark
+    public int floodReveal(Board board, FreshBoard fresh) {
+        return fresh.engine.reveal(board.openingCell).getOutcome();
+    }
+
+    /**
+     * Reveals the last safe cell, winning the round.
+     * @param board the board of the benchmark
+     * @param almostWon the board with only that cell left
+     * @return the outcome of the move
+     */
+    @Benchmark
+    public int winDetection(Board board, AlmostWonBoard almostWon) {
+        return almostWon.engine.reveal(board.lastCell).getOutcome();
+    }
+
+    /**
+     * Analyses the board right after the first click.
+     * @param board the board of the benchmark
+     * @return the analysis of the board
+     */
+    @Benchmark
+    public Solver.Analysis solverStep(Board board) {
+        return new Solver(board.started).analyze();
+    }
+}
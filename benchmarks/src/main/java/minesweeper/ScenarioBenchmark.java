@@ -0,0 +1,54 @@
+package minesweeper;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the parsing and validation of scenario descriptions, for a classic
+ * scenario, a custom size with a mine density and an invalid one.
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScenarioBenchmark {
+    @Param({ "2,40,300,1", "1,12%,100000,0,300,200", "3,x,-1,2" })
+    public String description;
+
+    private List<String> lines;
+
+    /**
+     * Splits the description into its lines, one value per line.
+     */
+    @Setup
+    public void setUp() {
+        lines = Arrays.asList(description.split(","));
+    }
+
+    /**
+     * Validates the description.
+     * @return the result of the validation
+     */
+    @Benchmark
+    public ScenarioValidator.Result validate() {
+        return ScenarioValidator.validate(lines);
+    }
+}
@@ -0,0 +1,211 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes mine layouts in a compact binary format.
+ *
+ * <p>
+ * A binary layout file starts with a fixed header holding the dimensions, the
+ * number of mines, the seed, the start cell and the super-mine of the board,
+ * followed by one bit per cell, packed in 64-bit words, set for the cells that
+ * hold a mine. A 16x16 board takes 72 bytes instead of the ~400 bytes of the
+ * text format, and the file is read by memory-mapping it: asking whether a
+ * cell holds a mine is a single word lookup, with nothing to parse.
+ * </p>
+ *
+ * <pre>
+ * offset size field
+ *      0    4 magic "MSLY"
+ *      4    2 version (1)
+ *      6    2 reserved
+ *      8    4 width
+ *     12    4 height
+ *     16    4 mines
+ *     20    4 start cell, the centre of the safe area (flat cell index)
+ *     24    8 seed
+ *     32    4 super-mine (flat cell index, -1 if none)
+ *     36    4 reserved
+ *     40    8 * ceil(width * height / 64) mine bits, big-endian words
+ * </pre>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public final class BinaryMineLayout {
+    static final int MAGIC = 0x4D534C59, VERSION = 1, HEADER_SIZE = 40;
+
+    private final ByteBuffer buffer;
+    private final int width, height, mines, startCell, superMine;
+    private final long seed;
+
+    /**
+     * Reads the header of a layout held in the given buffer.
+     *
+     * @param buffer The buffer holding the whole layout file.
+     * @throws IOException if the buffer does not hold a valid layout
+     */
+    private BinaryMineLayout(ByteBuffer buffer) throws IOException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a binary mine layout");
+        }
+        if (buffer.getShort(4) != VERSION) {
+            throw new IOException("Unsupported mine layout version: " + buffer.getShort(4));
+        }
+        this.buffer = buffer;
+        this.width = buffer.getInt(8);
+        this.height = buffer.getInt(12);
+        this.mines = buffer.getInt(16);
+        this.startCell = buffer.getInt(20);
+        this.seed = buffer.getLong(24);
+        this.superMine = buffer.getInt(32);
+        if (width < 1 || height < 1 || buffer.limit() < HEADER_SIZE + wordCount(width * (long) height) * 8L) {
+            throw new IOException("Truncated binary mine layout");
+        }
+    }
+
+    /**
+     * Memory-maps a binary layout file.
+     *
+     * @param file The layout file to read.
+     * @return The layout held in the file.
+     * @throws IOException if the file can not be read or is not a valid layout
+     */
+    public static BinaryMineLayout open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new BinaryMineLayout(mapped);
+        }
+    }
+
+    /**
+     * Encodes the layout of a board in the binary format.
+     *
+     * @param engine The engine holding the placed mines.
+     * @return The bytes of the binary layout file.
+     */
+    public static byte[] encode(BoardEngine engine) {
+        int cells = engine.getCellCount();
+        ByteBuffer encoded = ByteBuffer.allocate(HEADER_SIZE + wordCount(cells) * 8);
+        encoded.putInt(MAGIC).putShort((short) VERSION).putShort((short) 0);
+        encoded.putInt(engine.getWidth()).putInt(engine.getHeight()).putInt(engine.getTotalMines());
+        encoded.putInt(engine.getStartCell()).putLong(engine.getSeed()).putInt(engine.getSuperMine()).putInt(0);
+        for (int base = 0; base < cells; base += 64) {
+            long word = 0;
+            int end = Math.min(base + 64, cells);
+            for (int cell = base; cell < end; cell++) {
+                if (engine.isMine(cell)) {
+                    word |= 1L << (cell - base);
+                }
+            }
+            encoded.putLong(word);
+        }
+        return encoded.array();
+    }
+
+    /**
+     * Writes the layout of a board to the given file in the binary format.
+     *
+     * @param engine The engine holding the placed mines.
+     * @param file   The file to write.
+     * @throws IOException if the file can not be written
+     */
+    public static void write(BoardEngine engine, Path file) throws IOException {
+        PersistenceService.writeAtomically(file, encode(engine));
+    }
+
+    /**
+     * Returns the number of 64-bit words needed to hold one bit per cell.
+     *
+     * @param cells The number of cells of the board.
+     * @return The number of words.
+     */
+    private static int wordCount(long cells) {
+        return (int) ((cells + 63) >>> 6);
+    }
+
+    /**
+     * Returns whether the cell holds a mine, straight from the mapped file.
+     *
+     * @param cell The flat index of the cell.
+     * @return true if the cell holds a mine, false otherwise.
+     */
+    public boolean isMine(int cell) {
+        long word = buffer.getLong(HEADER_SIZE + (cell >>> 6) * 8);
+        return (word >>> (cell & 63) & 1L) != 0;
+    }
+
+    /**
+     * Builds the text of the mines.txt file for this layout, so that archived
+     * binary layouts can still be exported in the text format.
+     *
+     * @return One "row, column, supermine" line per mine, the super-mine first.
+     */
+    public String toText() {
+        StringBuilder layout = new StringBuilder(mines * 12);
+        if (superMine >= 0) {
+            layout.append(superMine / width).append(", ").append(superMine % width).append(", 1\n");
+        }
+        int cells = width * height;
+        for (int cell = 0; cell < cells; cell++) {
+            if (cell != superMine && isMine(cell)) {
+                layout.append(cell / width).append(", ").append(cell % width).append(", 0\n");
+            }
+        }
+        return layout.toString();
+    }
+
+    /**
+     * Returns the number of columns of the board.
+     * @return the width of the board
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the number of rows of the board.
+     * @return the height of the board
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the total number of mines of the board.
+     * @return the total number of mines
+     */
+    public int getMines() {
+        return mines;
+    }
+
+    /**
+     * Returns the seed the mines were placed with.
+     * @return the seed of the board
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the cell the mines were placed around, the centre of the safe area,
+     * which is not always the player's first click.
+     * @return the flat index of the start cell
+     */
+    public int getStartCell() {
+        return startCell;
+    }
+
+    /**
+     * Returns the cell that holds the super-mine.
+     * @return the flat index of the super-mine, or -1 if the board has none
+     */
+    public int getSuperMine() {
+        return superMine;
+    }
+}
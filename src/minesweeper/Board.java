@@ -1,348 +1,256 @@
 package minesweeper;
 
+import javafx.scene.Node;
 import javafx.scene.input.MouseButton;
-import javafx.scene.layout.GridPane;
 
 /**
- * Represents the Minesweeper game board and manages its state.
- * 
+ * Forwards the player's clicks on the Minesweeper game board to its engine.
+ *
  * <p>
- * The Board class contains methods to initialize and manipulate the game board,
- * handle click events, reveal tiles, and check the game state. It uses a 2D array
- * of Tile objects to represent the board's cells and keeps track of various game
- * parameters such as difficulty, game dimensions, and the total number of mines.
+ * The Board class owns the {@link BoardEngine} that holds the state of the game
+ * and the {@link BoardView} that displays it. Every click is applied to the
+ * engine and only the cells listed in the returned {@link MoveResult} are redrawn.
+ * The static fields keep the parameters of the game chosen in the menus, such as
+ * the difficulty, the game dimensions, the total number of mines, whether the
+ * board is drawn on a canvas instead of with one Tile per cell and whether the
+ * mines are placed so that the board can be cleared without guessing.
  * </p>
- * 
+ *
  * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
  * @version 1.0
  */
 public class Board {
     public static int difficulty, gameWidth = 1, gameHeight = 1,  totalMines = 0;
-    public static int superMineX, superMineY;
-    public static boolean startGame = false, firstClick = false;
-    public static Tile tiles[][];
+    public static boolean startGame = false, firstClick = false, canvasView = false, noGuess = false;
+    // Larger boards are always drawn on a canvas, one Tile per cell would not scale
+    static final int MAX_TILE_VIEW_CELLS = 32 * 32;
+    static final BoardPool boardPool = new BoardPool(BoardPool.DEFAULT_CAPACITY, 1);
+
+    private final BoardEngine engine;
+    private final GameRecorder recorder;
+    private BoardView view;
 
     /**
-     * Creates a GridPane representing the Minesweeper game board.
-     * 
-     * @return A GridPane containing Tile objects as cells.
+     * Constructs a Board with the dimensions and mines of the selected game, and
+     * starts generating boards of that size ahead of the first click.
      */
-    public GridPane createBoard() {
-        GridPane board = new GridPane();
-        for (int col = 0; col < gameHeight; col++) {
-            for (int row = 0; row < gameWidth; row++) {
-                Tile tile = new Tile();
-                tiles[row][col] = tile;
-                tile.setTileState(0);
-                tile.setOnMouseClicked(e -> {
-                    if (startGame) {
-                        int clickedX = GridPane.getColumnIndex(tile);
-                        int clickedY = GridPane.getRowIndex(tile);
-                        if (e.getButton() == MouseButton.PRIMARY) {
-                            if (!firstClick) {
-                                setMines(totalMines, clickedX, clickedY);
-                                checkBlanks(clickedX, clickedY);
-                                firstClick = true;
-                                Minesweeper.round_tries++;
-                            } else {
-                                handlePrimaryClick(tile);
-                            }
-                        }
-                        if (e.getButton() == MouseButton.SECONDARY) {
-                            handleSecondaryClick(tile);
-                        }
-                    }
-                });
-
-                board.add(tile, row, col);
-            }
-        }
-        return board;
+    public Board() {
+        this(new BoardEngine(gameWidth, gameHeight, totalMines), new GameRecorder(gameWidth, gameHeight, totalMines));
+        boardPool.prefill(gameWidth, gameHeight, totalMines, noGuess);
     }
 
     /**
-     * Handles primary (left) mouse click events on the Minesweeper board.
-     * 
-     * @param tile The Tile object that was clicked.
+     * Constructs a Board continuing a game, for a game resumed from a snapshot.
+     *
+     * @param engine   The engine holding the state of the game.
+     * @param recorder The recording of the moves made so far.
      */
-    private void handlePrimaryClick(Tile tile) {
-        Minesweeper.round_tries++;
-
-        if (tile.getGraphic() == tile.getFlag()) {
-            handleSecondaryClick(tile);
-        }
-
-        if (tile.getTileState() == Tile.MINE) { // Tile has mine
-            revealAllMines();
-            tile.setGraphic(tile.getExplosion());
-            Minesweeper.endGamePopUp(0, "You Lost!");
-        } 
-        else {
-            if (tile.getTileState() == Tile.NUMBERED) { // Tile is surrounded by mine(s)
-                if (tile.getGraphic() != null) {
-                    tile.setGraphic(null);
-                    tile.setText("" + tile.getSurroundingMines());
-                    if (areAllNumberedTilesUncovered()) {
-                        Minesweeper.endGamePopUp(1, "You Win!");
-                    }
-                } 
-            } 
-            else {
-                if (tile.getTileState() == Tile.BLANK) { // Tile is blank
-                    int clickedX = GridPane.getColumnIndex(tile);
-                    int clickedY = GridPane.getRowIndex(tile);
-                    checkBlanks(clickedX, clickedY);
-                }
-            }
-        }
+    Board(BoardEngine engine, GameRecorder recorder) {
+        this.engine = engine;
+        this.recorder = recorder;
     }
 
     /**
-     * Handles secondary (right) mouse click events on the Minesweeper board
-     * by placing or removing the flag on the tile that was clicked.
-     * 
-     * @param tile The Tile object that was clicked.
+     * Returns the engine holding the state of the game.
+     *
+     * @return The BoardEngine of this board.
      */
-    private void handleSecondaryClick(Tile tile) {
-        if (tile.getGraphic() == tile.getFlag()) {
-            tile.setGraphic(tile.getTile());
-            totalMines++;
-            Minesweeper.updateFlagCounter();
-        } else {
-            if (totalMines > 0 && tile.getGraphic() == tile.getTile()) {
-                tile.setGraphic(tile.getFlag());
-                totalMines--;
-                Minesweeper.updateFlagCounter();
-                if (firstClick && Minesweeper.superMineFlag && Minesweeper.round_tries <= 4) {
-                    int x = GridPane.getRowIndex(tile);
-                    int y = GridPane.getColumnIndex(tile);
-                    if (x == superMineX && y == superMineY) {
-                        revealSuperMine(y, x);
-                    }
-                }
-            }
-        }
+    public BoardEngine getEngine() {
+        return engine;
     }
 
     /**
-     * Reveals the contents of all squares in the same row and column as the
-     * super-mine
-     * if the player marks the super-mine within the first 4 attempts.
+     * Returns the recording of the moves made on this board.
      *
-     * @param superMineX The x-coordinate of the super-mine on the board
-     * @param superMineY The y-coordinate of the super-mine on the board
+     * @return The GameRecorder of this board.
      */
-    private void revealSuperMine(int superMineX, int superMineY) {
-    
-        for (int x = 0; x < gameWidth; x++) {
-            revealTile(x, superMineY);
-        }
+    public GameRecorder getRecorder() {
+        return recorder;
+    }
 
-        for (int y = 0; y < gameHeight; y++) {
-            if (y != superMineY) { // Avoid revealing the super-mine again
-                revealTile(superMineX, y);
+    /**
+     * Creates the view displaying the Minesweeper game board, either a canvas
+     * or a grid of Tile objects depending on canvasView. Boards of more than
+     * MAX_TILE_VIEW_CELLS cells are always drawn on a canvas.
+     *
+     * @return The node displaying the board.
+     */
+    public Node createBoard() {
+        boolean useCanvas = canvasView || engine.getCellCount() > MAX_TILE_VIEW_CELLS;
+        view = useCanvas ? new CanvasBoardView(this) : new TileBoardView(this);
+        for (int cell = 0; cell < engine.getCellCount(); cell++) {
+            if (engine.getCellState(cell) != BoardEngine.HIDDEN) { // a resumed game
+                view.drawCell(cell);
             }
         }
+        return view.getNode();
     }
 
     /**
-     * Reveals the content of a tile and updates its state accordingly.
+     * Returns the width of the board on screen.
      *
-     * @param x The x-coordinate of the tile on the board
-     * @param y The y-coordinate of the tile on the board
+     * @return The width of the board's view in pixels.
      */
-    private void revealTile(int x, int y) {
-        Tile tile = tiles[x][y];
-        if (tile.getGraphic() == tile.getFlag()) {
-            totalMines++;
-            Minesweeper.updateFlagCounter();
-        }
-        if (tile.getTileState() == Tile.MINE) { // Tile contains a mine
-            tile.setGraphic(tile.getMine());
-            tile.setDisable(true);
-            totalMines--;
-            Minesweeper.updateFlagCounter();
-        } else if (tile.getTileState() == Tile.BLANK) { // Tile is blank
-            tile.setGraphic(null);
-        } else { // Tile is a numbered tile
-            tile.setGraphic(null);
-            tile.setText("" + tile.getSurroundingMines());
-        }
+    public double getViewWidth() {
+        return view.getViewWidth();
     }
 
     /**
-     * Recursively checks and reveals blank tiles and their adjacent numbered tiles.
+     * Handles a mouse click on a cell of the board while a game is running.
+     * Mines revealed by the super-mine can not be clicked. A middle click, or a
+     * double click, on a revealed number chords it.
      *
-     * @param row    The x-coordinate of the tile to check.
-     * @param column The y-coordinate of the tile to check.
+     * @param cell       The flat index of the clicked cell.
+     * @param button     The mouse button that was clicked.
+     * @param clickCount The number of consecutive clicks, 2 for a double click.
      */
-    private void checkBlanks(int row, int column) {
-        if (row < 0 || row >= gameWidth || column < 0 || column >= gameHeight) {
+    void handleClick(int cell, MouseButton button, int clickCount) {
+        if (!startGame || (engine.getCellState(cell) == BoardEngine.REVEALED && engine.isMine(cell))) {
             return;
         }
-
-        if (tiles[row][column].getSurroundingMines() == 0
-                && tiles[row][column].getGraphic() == tiles[row][column].getTile()) {
-            tiles[row][column].setGraphic(null);
-
-            checkBlanks(row + 1, column);
-            checkBlanks(row - 1, column);
-            checkBlanks(row, column + 1);
-            checkBlanks(row, column - 1);
+        boolean revealed = engine.getCellState(cell) == BoardEngine.REVEALED;
+        boolean chord = button == MouseButton.MIDDLE || (button == MouseButton.PRIMARY && clickCount >= 2 && revealed);
+        if (chord) {
+            if (firstClick) {
+                handleChord(cell);
+            }
+        } else if (button == MouseButton.PRIMARY) {
+            if (!firstClick) {
+                handleFirstClick(cell);
+            } else {
+                handlePrimaryClick(cell);
+            }
         }
-
-        if (tiles[row][column].getSurroundingMines() != 0
-                && tiles[row][column].getGraphic() == tiles[row][column].getTile()) {
-            tiles[row][column].setGraphic(null);
-            tiles[row][column].setText(Integer.toString(tiles[row][column].getSurroundingMines()));
+        if (button == MouseButton.SECONDARY) {
+            handleSecondaryClick(cell);
         }
-
     }
 
     /**
-     * Reveals all mines on the grid as unexploded mines.
+     * Handles the player's first click by placing the mines around it and
+     * revealing the safe area. A board generated ahead of time is used when one
+     * accepts the click.
+     *
+     * @param cell The flat index of the clicked cell.
      */
-    public static void revealAllMines() {
-        for (int row = 0; row < gameWidth; row++) {
-            for (int col = 0; col < gameHeight; col++) {
-                if (tiles[row][col].getTileState() == Tile.MINE) {
-                    tiles[row][col].setGraphic(tiles[row][col].getMine());
-                }
+    private void handleFirstClick(int cell) {
+        int width = engine.getWidth(), height = engine.getHeight(), mines = engine.getTotalMines();
+        MoveResult result;
+        BoardPool.Layout layout = boardPool.take(width, height, mines, noGuess, cell);
+        if (layout != null) {
+            result = engine.start(engine.getX(cell), engine.getY(cell), difficulty == 2, layout.getSeed(),
+                    layout.getStartCell());
+        } else {
+            long seed = new java.util.Random().nextLong();
+            if (noGuess) {
+                seed = NoGuessGenerator.findSeed(width, height, mines, cell, seed,
+                        NoGuessGenerator.DEFAULT_BUDGET_MILLIS);
             }
+            result = engine.start(engine.getX(cell), engine.getY(cell), difficulty == 2, seed);
         }
+        recorder.start(cell, engine.getSeed(), engine.getStartCell(), difficulty == 2);
+        render(result);
+        Minesweeper.superMineFlag = engine.getSuperMine() >= 0;
+        Minesweeper.minesFile(engine);
+        firstClick = true;
+        Minesweeper.round_tries++;
+        handleOutcome(result);
     }
 
     /**
-     * Checks if all numbered tiles are uncovered.
+     * Handles primary (left) mouse click events on the Minesweeper board.
+     * A click on a revealed cell, such as the first half of a double click that
+     * chords it, is neither a try nor a recorded move.
      *
-     * @return true if all numbered tiles are uncovered, false otherwise.
+     * @param cell The flat index of the clicked cell.
      */
-    private boolean areAllNumberedTilesUncovered() {
-        for (int row = 0; row < gameWidth; row++) {
-            for (int col = 0; col < gameHeight; col++) {
-                if (tiles[row][col].getTileState() == Tile.NUMBERED && tiles[row][col].getGraphic() != null) {
-                    return false;
-                }
-            }
+    private void handlePrimaryClick(int cell) {
+        if (engine.getCellState(cell) == BoardEngine.REVEALED) {
+            return;
+        }
+        Minesweeper.round_tries++;
+
+        MoveResult result = engine.reveal(cell);
+        if (result.getChangedCount() > 0) {
+            recorder.record(GameRecorder.REVEAL, cell);
         }
-        return true;
+        render(result);
+        handleOutcome(result);
     }
 
     /**
-     * Method to randomly set the bombs for the game.
-     * 
-     * @param mines  The total number of mines to be placed on the board.
-     * @param row    The x-coordinate of the player's first click.
-     * @param column The y-coordinate of the player's first click.
+     * Chords a revealed number: when the flags around it match its count, all of
+     * its other hidden neighbours are revealed at once, blank areas included, and
+     * redrawn from a single change set. The chord counts as one try.
+     *
+     * @param cell The flat index of the clicked cell.
      */
-    private void setMines(int mines, int row, int column) {
-        int counter = 0;
-        java.util.Random random = new java.util.Random();
-        while (counter < totalMines) {
-            int j = random.nextInt(gameHeight);
-            int i = random.nextInt(gameWidth);
-            try {
-                if (!firstClick) {
-                    ensureFirstClickSafety(row, column);
-                    firstClick = true;
-                }
-
-                if (tiles[i][j].getTileState() != Tile.MINE && !tiles[i][j].getNoMine()) {
-                    tiles[i][j].setTileState(-1);
-                    counter++;
-                    setNumbers(i, j);
-
-                    // Place the super-mine and set its supermine parameter as 1
-                    if (!Minesweeper.superMineFlag && difficulty == 2) {
-                        Minesweeper.minesFile(j, i, 1);
-                        Minesweeper.superMineFlag = true;
-                        superMineX = j;
-                        superMineY = i;
-
-                    } else {
-                        Minesweeper.minesFile(j, i, 0);
-                    }
-                }
-            } catch (IndexOutOfBoundsException e) {
-            }
+    private void handleChord(int cell) {
+        MoveResult result = engine.chord(cell);
+        if (result.getChangedCount() == 0) { // not a number, the flags do not match it or nothing is hidden
+            return;
         }
-        MarkSafeTiles();
+        Minesweeper.round_tries++;
+        recorder.record(GameRecorder.CHORD, cell);
+        render(result);
+        handleOutcome(result);
     }
 
     /**
-     * Ensures that the tiles surrounding the player's first click are safe (no
-     * mines).
-     * 
-     * @param row    The x-coordinate of the player's first click.
-     * @param column The y-coordinate of the player's first click.
+     * Handles secondary (right) mouse click events on the Minesweeper board
+     * by placing or removing the flag on the tile that was clicked.
+     * If the player marks the super-mine within the first 4 attempts, all the
+     * tiles in the same row and column as the super-mine are revealed.
+     *
+     * @param cell The flat index of the clicked cell.
      */
-    private void ensureFirstClickSafety(int row, int column) {
-        int[][] neighbors = {
-                { -1, -1 }, { -1, 0 }, { -1, 1 },
-                { 0, -1 }, { 0, 1 },
-                { 1, -1 }, { 1, 0 }, { 1, 1 }
-        };
-
-        for (int[] neighbor : neighbors) {
-            int x = row + neighbor[0];
-            int y = column + neighbor[1];
-
-            if (isValidCoordinate(x, y)) {
-                tiles[x][y].setNoMine();
-            }
+    private void handleSecondaryClick(int cell) {
+        MoveResult flagged = engine.toggleFlag(cell);
+        if (flagged.getChangedCount() > 0) { // no flags left, or the cell is revealed
+            recorder.record(GameRecorder.FLAG, cell);
+        }
+        render(flagged);
+        if (firstClick && Minesweeper.superMineFlag && Minesweeper.round_tries <= 4
+                && cell == engine.getSuperMine() && engine.getCellState(cell) == BoardEngine.FLAGGED) {
+            recorder.record(GameRecorder.SUPER_MINE, cell);
+            MoveResult result = engine.revealSuperMine();
+            render(result);
+            handleOutcome(result);
         }
     }
 
     /**
-     * Checks if the given coordinates are within the bounds of the game board.
-     * 
-     * @param x The x-coordinate to be checked.
-     * @param y The y-coordinate to be checked.
-     * @return True if the coordinates are valid, false otherwise.
+     * Ends the game if the move applied to the engine lost or won it.
+     *
+     * @param result The result of the move applied to the engine.
      */
-    private boolean isValidCoordinate(int row, int column) {
-        return row >= 0 && row < gameWidth && column >= 0 && column < gameHeight;
+    private void handleOutcome(MoveResult result) {
+        if (result.getOutcome() == MoveResult.LOST) {
+            revealAllMines();
+            view.showExplosion(result.getExplodedCell());
+            Minesweeper.endGamePopUp(0, "You Lost!");
+        } else if (result.getOutcome() == MoveResult.WON) {
+            Minesweeper.endGamePopUp(1, "You Win!");
+        }
     }
 
     /**
-     * Marks the safe tiles on the game board.
-     * Safe tiles are those that do not have a mine.
+     * Redraws the cells changed by a move and updates the flag counter.
+     *
+     * @param result The result of the move applied to the engine.
      */
-    private void MarkSafeTiles() {
-        for (int column = 0; column < gameHeight; column++) {
-            for (int row = 0; row < gameWidth; row++) {
-                if (tiles[row][column].getNoMine()) {
-                    checkBlanks(row, column);
-                    tiles[row][column].setGraphic(null);
-                    if (tiles[row][column].getSurroundingMines() != 0) {
-                        tiles[row][column].setText("" + tiles[row][column].getSurroundingMines());
-                    }
-                }
-            }
+    private void render(MoveResult result) {
+        for (int i = 0; i < result.getChangedCount(); i++) {
+            view.drawCell(result.getChangedCell(i));
         }
+        Minesweeper.session.setFlagsLeft(engine.getFlagsLeft());
     }
 
     /**
-     * Sets the numbers of the surrounding tiles around a mine at the specified
-     * coordinates (x, y).
-     * The method increments the number of each adjacent tile, if it's not a mine
-     * itself.
-     * 
-     * @param row The x-coordinate of the mine.
-     * @param column The y-coordinate of the mine.
+     * Reveals all mines on the grid as unexploded mines.
      */
-    private void setNumbers(int row, int column) {
-        for (int offsetX = -1; offsetX <= 1; offsetX++) {
-            for (int offsetY = -1; offsetY <= 1; offsetY++) {
-                int newX = row + offsetX;
-                int newY = column + offsetY;
-
-                if (isValidCoordinate(newX, newY) && tiles[newX][newY].getTileState() != -1) {
-                    tiles[newX][newY].setTileState(1);
-                }
-            }
-        }
-        areAllNumberedTilesUncovered();
+    public void revealAllMines() {
+        view.showAllMines();
     }
 
 }
\ No newline at end of file
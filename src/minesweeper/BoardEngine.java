@@ -0,0 +1,698 @@
+package minesweeper;
+
+import java.util.stream.IntStream;
+
+/**
+ * Holds the complete state of a single Minesweeper game without depending on JavaFX.
+ *
+ * <p>
+ * The BoardEngine stores the mine layout, the neighbour counts and the
+ * reveal/flag state of every cell packed in a single byte per cell, in a
+ * {@link CellStore} indexed by a flat cell index ({@code y * width + x}). Moves such as revealing, flagging or chording a
+ * cell are applied through methods that return a {@link MoveResult}, which the
+ * user interface uses to redraw the cells that changed. Each game owns its own
+ * engine, so several games can be played in the same JVM without a display.
+ * </p>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public class BoardEngine {
+    public static final int MINE = -1, BLANK = 0, NUMBERED = 1;
+    public static final int HIDDEN = 0, REVEALED = 1, FLAGGED = 2;
+
+    // Boards larger than this have their numbers counted on several cores
+    static final int PARALLEL_COUNT_CELLS = 1 << 20;
+
+    private final int width, height, cellCount, totalMines;
+    private final CellStore cells;
+    private final MoveResult result;
+    private int flagsLeft;
+    private int hiddenSafeCells;
+    private int superMine = -1;
+    private int startCell = -1;
+    private long seed;
+    private boolean minesPlaced = false;
+
+    /**
+     * Constructs an empty board of the given dimensions.
+     * The mines are placed later, when the player makes the first click.
+     *
+     * @param width  The number of columns of the board.
+     * @param height The number of rows of the board.
+     * @param mines  The total number of mines to be placed on the board.
+     */
+    public BoardEngine(int width, int height, int mines) {
+        this(width, height, mines, CellStore.allocate(checkSize(width, height)));
+    }
+
+    /**
+     * Constructs an empty board of the given dimensions stored in the given cells.
+     * The mines are placed later, when the player makes the first click.
+     *
+     * @param width  The number of columns of the board.
+     * @param height The number of rows of the board.
+     * @param mines  The total number of mines to be placed on the board.
+     * @param cells  An empty store of width * height cells.
+     */
+    public BoardEngine(int width, int height, int mines, CellStore cells) {
+        int cellCount = checkSize(width, height);
+        if (mines < 0 || mines > cellCount) {
+            throw new IllegalArgumentException("Invalid total mines value: " + mines);
+        }
+        if (cells.size() != cellCount) {
+            throw new IllegalArgumentException("Expected a store of " + cellCount + " cells");
+        }
+        this.width = width;
+        this.height = height;
+        this.cellCount = cellCount;
+        this.totalMines = mines;
+        this.flagsLeft = mines;
+        this.hiddenSafeCells = cellCount - mines;
+        this.cells = cells;
+        this.result = new MoveResult(cellCount);
+    }
+
+    /**
+     * Constructs a copy of a board in its current state, stored in cells of the
+     * same kind as those chosen for a new board of its size.
+     *
+     * @param other The engine to copy.
+     */
+    BoardEngine(BoardEngine other) {
+        this(other.width, other.height, other.totalMines);
+        if (cellCount <= CellStore.DIRECT_THRESHOLD) {
+            byte[] copy = new byte[cellCount];
+            other.cells.copyTo(copy, 0);
+            cells.copyFrom(copy, 0);
+        } else {
+            for (int cell = 0; cell < cellCount; cell++) {
+                cells.set(cell, other.cells.get(cell));
+            }
+        }
+        this.flagsLeft = other.flagsLeft;
+        this.hiddenSafeCells = other.hiddenSafeCells;
+        this.superMine = other.superMine;
+        this.startCell = other.startCell;
+        this.seed = other.seed;
+        this.minesPlaced = other.minesPlaced;
+    }
+
+    /**
+     * Constructs a board from a saved state.
+     *
+     * @param width           The number of columns of the board.
+     * @param height          The number of rows of the board.
+     * @param mines           The total number of mines of the board.
+     * @param cellBytes       The array holding one byte per cell, as stored by a CellStore.
+     * @param offset          The index of the first cell in the array.
+     * @param flagsLeft       The number of flags the player has left.
+     * @param hiddenSafeCells The number of cells without a mine still hidden.
+     * @param superMine       The flat index of the super-mine, or -1.
+     * @param startCell       The flat index of the start cell, or -1 before the first click.
+     * @param seed            The seed the mines were placed with.
+     */
+    BoardEngine(int width, int height, int mines, byte[] cellBytes, int offset, int flagsLeft,
+            int hiddenSafeCells, int superMine, int startCell, long seed) {
+        this(width, height, mines);
+        cells.copyFrom(cellBytes, offset);
+        this.flagsLeft = flagsLeft;
+        this.hiddenSafeCells = hiddenSafeCells;
+        this.superMine = superMine;
+        this.startCell = startCell;
+        this.seed = seed;
+        this.minesPlaced = startCell >= 0;
+    }
+
+    /**
+     * Copies the byte of every cell, as stored by its CellStore, into an array.
+     *
+     * @param target The array receiving the cells.
+     * @param offset The index of the first cell in the array.
+     */
+    void copyCells(byte[] target, int offset) {
+        cells.copyTo(target, offset);
+    }
+
+    /**
+     * Checks the dimensions of a board.
+     *
+     * @param width  The number of columns of the board.
+     * @param height The number of rows of the board.
+     * @return The number of cells of the board.
+     */
+    private static int checkSize(int width, int height) {
+        if (width < 1 || height < 1 || (long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid board size: " + width + "x" + height);
+        }
+        return width * height;
+    }
+
+    /**
+     * Returns the number of columns of the board.
+     * @return the width of the board
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the number of rows of the board.
+     * @return the height of the board
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the number of cells of the board.
+     * @return the number of cells
+     */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Returns the total number of mines of the board.
+     * @return the total number of mines
+     */
+    public int getTotalMines() {
+        return totalMines;
+    }
+
+    /**
+     * Returns the number of flags the player can still place.
+     * @return the number of flags left
+     */
+    public int getFlagsLeft() {
+        return flagsLeft;
+    }
+
+    /**
+     * Returns the number of cells without a mine that are still not revealed.
+     * @return the number of hidden safe cells, 0 once the game is won
+     */
+    public int getHiddenSafeCells() {
+        return hiddenSafeCells;
+    }
+
+    /**
+     * Returns the cell that holds the super-mine.
+     * @return the flat index of the super-mine, or -1 if the board has none
+     */
+    public int getSuperMine() {
+        return superMine;
+    }
+
+    /**
+     * Returns the seed the mines were placed with.
+     * @return the seed of the game, 0 before the first click
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the cell around which no mines were placed, which is the player's
+     * first click unless the board was generated ahead of time.
+     * @return the flat index of the start cell, or -1 before the first click
+     */
+    public int getStartCell() {
+        return startCell;
+    }
+
+    /**
+     * Returns whether the mines have already been placed on the board.
+     * @return true once the first click has been made, false otherwise
+     */
+    public boolean areMinesPlaced() {
+        return minesPlaced;
+    }
+
+    /**
+     * Returns the flat index of the cell at the given coordinates.
+     *
+     * @param x The column of the cell.
+     * @param y The row of the cell.
+     * @return The flat index of the cell.
+     */
+    public int index(int x, int y) {
+        return y * width + x;
+    }
+
+    /**
+     * Returns the column of the cell with the given flat index.
+     *
+     * @param cell The flat index of the cell.
+     * @return The column of the cell.
+     */
+    public int getX(int cell) {
+        return cell % width;
+    }
+
+    /**
+     * Returns the row of the cell with the given flat index.
+     *
+     * @param cell The flat index of the cell.
+     * @return The row of the cell.
+     */
+    public int getY(int cell) {
+        return cell / width;
+    }
+
+    /**
+     * Checks if the given coordinates are within the bounds of the board.
+     *
+     * @param x The column to be checked.
+     * @param y The row to be checked.
+     * @return True if the coordinates are valid, false otherwise.
+     */
+    public boolean isValidCoordinate(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    /**
+     * Returns whether the cell contains a mine.
+     *
+     * @param cell The flat index of the cell.
+     * @return true if the cell contains a mine, false otherwise.
+     */
+    public boolean isMine(int cell) {
+        return (cells.get(cell) & CellStore.MINE) != 0;
+    }
+
+    /**
+     * Returns whether the cell is next to the player's first click, where no
+     * mine is ever placed.
+     *
+     * @param cell The flat index of the cell.
+     * @return true if the cell is in the safe area of the first click, false otherwise.
+     */
+    public boolean isNoMine(int cell) {
+        return (cells.get(cell) & CellStore.NO_MINE) != 0;
+    }
+
+    /**
+     * Returns the number of mines surrounding the cell.
+     *
+     * @param cell The flat index of the cell.
+     * @return The number of surrounding mines.
+     */
+    public int getSurroundingMines(int cell) {
+        return cells.get(cell) & CellStore.COUNT;
+    }
+
+    /**
+     * Returns the state of the cell's content.
+     *
+     * @param cell The flat index of the cell.
+     * @return MINE, BLANK or NUMBERED (surrounded by mine(s)).
+     */
+    public int getTileState(int cell) {
+        int bits = cells.get(cell);
+        if ((bits & CellStore.MINE) != 0) {
+            return MINE;
+        }
+        return (bits & CellStore.COUNT) == 0 ? BLANK : NUMBERED;
+    }
+
+    /**
+     * Returns the visible state of the cell.
+     *
+     * @param cell The flat index of the cell.
+     * @return HIDDEN, REVEALED or FLAGGED.
+     */
+    public int getCellState(int cell) {
+        int bits = cells.get(cell);
+        if ((bits & CellStore.REVEALED) != 0) {
+            return REVEALED;
+        }
+        return (bits & CellStore.FLAGGED) != 0 ? FLAGGED : HIDDEN;
+    }
+
+    /**
+     * Changes the visible state of the cell, keeping its other bits.
+     *
+     * @param cell  The flat index of the cell.
+     * @param state HIDDEN, REVEALED or FLAGGED.
+     */
+    private void setCellState(int cell, int state) {
+        int bits = cells.get(cell) & ~(CellStore.REVEALED | CellStore.FLAGGED);
+        if (state == REVEALED) {
+            bits |= CellStore.REVEALED;
+        } else if (state == FLAGGED) {
+            bits |= CellStore.FLAGGED;
+        }
+        cells.set(cell, bits);
+    }
+
+    /**
+     * Places the mines around the player's first click and reveals the area
+     * around it, which is guaranteed to contain no mines. The same seed and first
+     * click always produce the same board.
+     *
+     * @param x               The column of the player's first click.
+     * @param y               The row of the player's first click.
+     * @param withSuperMine   Whether the first mine placed becomes the super-mine.
+     * @param seed            The seed used to place the mines.
+     * @return The cells revealed by the first click.
+     */
+    public MoveResult start(int x, int y, boolean withSuperMine, long seed) {
+        return start(x, y, withSuperMine, seed, index(x, y));
+    }
+
+    /**
+     * Places the mines around the given safe cell and reveals the player's first
+     * click. This lets a board generated ahead of time around one cell be played
+     * from any other cell that has no mine around it; the board is still rebuilt
+     * from its seed and start cell, which is the safe cell.
+     *
+     * @param x               The column of the player's first click.
+     * @param y               The row of the player's first click.
+     * @param withSuperMine   Whether the first mine placed becomes the super-mine.
+     * @param seed            The seed used to place the mines.
+     * @param safeCell        The flat index of the cell the mines are placed around.
+     * @return The cells revealed by the first click.
+     */
+    public MoveResult start(int x, int y, boolean withSuperMine, long seed, int safeCell) {
+        if (minesPlaced) {
+            throw new IllegalStateException("Mines have already been placed");
+        }
+        this.seed = seed;
+        this.startCell = safeCell;
+        setMines(MinePlacer.place(width, height, totalMines, safeCell, seed), withSuperMine);
+        minesPlaced = true;
+        return reveal(index(x, y)); // the clicked cell of a fresh board opens its whole safe area
+    }
+
+    /**
+     * Reveals the cell the player clicked on. A flagged cell loses its flag first.
+     *
+     * @param cell The flat index of the clicked cell.
+     * @return The cells that changed and the outcome of the move.
+     */
+    public MoveResult reveal(int cell) {
+        result.reset();
+        if (getCellState(cell) == REVEALED) {
+            return result;
+        }
+        if (getCellState(cell) == FLAGGED) { // the cell is redrawn below once revealed
+            setCellState(cell, HIDDEN);
+            flagsLeft++;
+        }
+
+        if (isMine(cell)) {
+            setCellState(cell, REVEALED);
+            result.addChangedCell(cell);
+            result.setExplodedCell(cell);
+            result.setOutcome(MoveResult.LOST);
+        } else {
+            floodReveal(cell);
+            result.setOutcome(hiddenSafeCells == 0 ? MoveResult.WON : MoveResult.CONTINUE);
+        }
+        return result;
+    }
+
+    /**
+     * Places or removes a flag on the cell. A flag can only be placed on a hidden
+     * cell while the player has flags left.
+     *
+     * @param cell The flat index of the clicked cell.
+     * @return The cell that changed, if any.
+     */
+    public MoveResult toggleFlag(int cell) {
+        result.reset();
+        int state = getCellState(cell);
+        if (state == FLAGGED) {
+            setCellState(cell, HIDDEN);
+            flagsLeft++;
+            result.addChangedCell(cell);
+            result.setOutcome(MoveResult.CONTINUE);
+        } else if (state == HIDDEN && flagsLeft > 0) {
+            setCellState(cell, FLAGGED);
+            flagsLeft--;
+            result.addChangedCell(cell);
+            result.setOutcome(MoveResult.CONTINUE);
+        }
+        return result;
+    }
+
+    /**
+     * Reveals every hidden, unflagged neighbour of a revealed numbered cell whose
+     * number matches the flags placed around it. Mines already revealed by the
+     * super-mine count as flags.
+     *
+     * @param cell The flat index of the clicked cell.
+     * @return The cells that changed and the outcome of the move.
+     */
+    public MoveResult chord(int cell) {
+        result.reset();
+        if (getCellState(cell) != REVEALED || isMine(cell) || getSurroundingMines(cell) == 0) {
+            return result;
+        }
+        int x = getX(cell), y = getY(cell);
+        int flags = 0;
+        for (int offsetY = -1; offsetY <= 1; offsetY++) {
+            for (int offsetX = -1; offsetX <= 1; offsetX++) {
+                if (!isValidCoordinate(x + offsetX, y + offsetY)) {
+                    continue;
+                }
+                int neighbour = index(x + offsetX, y + offsetY);
+                int state = getCellState(neighbour);
+                if (state == FLAGGED || (state == REVEALED && isMine(neighbour))) {
+                    flags++;
+                }
+            }
+        }
+        if (flags != getSurroundingMines(cell)) {
+            return result;
+        }
+
+        result.setOutcome(MoveResult.CONTINUE);
+        for (int offsetY = -1; offsetY <= 1; offsetY++) {
+            for (int offsetX = -1; offsetX <= 1; offsetX++) {
+                int newX = x + offsetX, newY = y + offsetY;
+                if (!isValidCoordinate(newX, newY) || getCellState(index(newX, newY)) != HIDDEN) {
+                    continue;
+                }
+                int neighbour = index(newX, newY);
+                if (isMine(neighbour)) {
+                    setCellState(neighbour, REVEALED);
+                    result.addChangedCell(neighbour);
+                    if (result.getExplodedCell() < 0) {
+                        result.setExplodedCell(neighbour);
+                    }
+                    result.setOutcome(MoveResult.LOST);
+                } else {
+                    floodReveal(neighbour);
+                }
+            }
+        }
+        if (result.getOutcome() != MoveResult.LOST && hiddenSafeCells == 0) {
+            result.setOutcome(MoveResult.WON);
+        }
+        return result;
+    }
+
+    /**
+     * Reveals the contents of all cells in the same row and column as the
+     * super-mine. Flags on those cells are removed and the mines found there
+     * count as marked, so they reduce the number of flags left.
+     *
+     * @return The cells that changed and the outcome of the move.
+     */
+    public MoveResult revealSuperMine() {
+        result.reset();
+        if (superMine < 0) {
+            return result;
+        }
+        int superMineX = getX(superMine), superMineY = getY(superMine);
+        for (int x = 0; x < width; x++) {
+            revealTile(index(x, superMineY));
+        }
+        for (int y = 0; y < height; y++) {
+            if (y != superMineY) { // Avoid revealing the super-mine again
+                revealTile(index(superMineX, y));
+            }
+        }
+        result.setOutcome(hiddenSafeCells == 0 ? MoveResult.WON : MoveResult.CONTINUE);
+        return result;
+    }
+
+    /**
+     * Reveals the content of a single cell without expanding blank areas.
+     *
+     * @param cell The flat index of the cell.
+     */
+    private void revealTile(int cell) {
+        int state = getCellState(cell);
+        if (state == REVEALED) {
+            return;
+        }
+        if (state == FLAGGED) {
+            flagsLeft++;
+        }
+        if (isMine(cell)) {
+            flagsLeft--;
+        } else {
+            hiddenSafeCells--;
+        }
+        setCellState(cell, REVEALED);
+        result.addChangedCell(cell);
+    }
+
+    /**
+     * Reveals a hidden safe cell and, if it is blank, every cell reachable from it
+     * through blank cells in any of the 8 directions.
+     *
+     * <p>
+     * The cells opened by the current move are appended to the result, which
+     * doubles as the breadth-first queue: the cells between {@code head} and the
+     * end of the result are the ones still to be expanded. The fill therefore
+     * needs no recursion, and the queue grows only when a move touches more
+     * cells than any move before it.
+     * </p>
+     *
+     * @param cell The flat index of the hidden safe cell to reveal.
+     */
+    private void floodReveal(int cell) {
+        int head = result.getChangedCount();
+        open(cell);
+        while (head < result.getChangedCount()) {
+            int current = result.getChangedCell(head++);
+            if ((cells.get(current) & CellStore.COUNT) != 0) {
+                continue;
+            }
+            int x = current % width;
+            boolean left = x > 0, right = x < width - 1;
+            if (current >= width) {
+                int above = current - width;
+                if (left) {
+                    openIfHidden(above - 1);
+                }
+                openIfHidden(above);
+                if (right) {
+                    openIfHidden(above + 1);
+                }
+            }
+            if (left) {
+                openIfHidden(current - 1);
+            }
+            if (right) {
+                openIfHidden(current + 1);
+            }
+            if (current < cellCount - width) {
+                int below = current + width;
+                if (left) {
+                    openIfHidden(below - 1);
+                }
+                openIfHidden(below);
+                if (right) {
+                    openIfHidden(below + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens a neighbour of a blank cell unless it is already revealed or flagged.
+     * Neighbours of a blank cell never hold a mine.
+     *
+     * @param cell The flat index of the neighbouring cell.
+     */
+    private void openIfHidden(int cell) {
+        if ((cells.get(cell) & (CellStore.REVEALED | CellStore.FLAGGED)) == 0) {
+            open(cell);
+        }
+    }
+
+    /**
+     * Marks a safe cell as revealed, records it in the current result and
+     * updates the number of safe cells left to reveal.
+     *
+     * @param cell The flat index of the cell.
+     */
+    private void open(int cell) {
+        cells.set(cell, cells.get(cell) | CellStore.REVEALED);
+        hiddenSafeCells--;
+        result.addChangedCell(cell);
+    }
+
+    /**
+     * Places the mines on the given cells and then counts the mines surrounding
+     * every cell in a single sweep over the board.
+     *
+     * @param placed        The flat indices of the mines, in the order they were placed.
+     * @param withSuperMine Whether the first mine placed becomes the super-mine.
+     */
+    private void setMines(int[] placed, boolean withSuperMine) {
+        for (int cell : MinePlacer.safeArea(width, height, startCell)) {
+            cells.set(cell, cells.get(cell) | CellStore.NO_MINE); // keeps flags placed before the first click
+        }
+        for (int cell : placed) {
+            cells.set(cell, cells.get(cell) | CellStore.MINE);
+        }
+        countSurroundingMines();
+        if (withSuperMine && placed.length > 0) {
+            superMine = placed[0];
+        }
+    }
+
+    /**
+     * Sets the number of surrounding mines of every cell from the mine bits alone,
+     * so the numbers do not depend on the order the mines were placed in. Boards
+     * of more than PARALLEL_COUNT_CELLS cells are counted in bands of rows on all
+     * available cores; each band only writes the counts of its own rows.
+     */
+    private void countSurroundingMines() {
+        if (cellCount <= PARALLEL_COUNT_CELLS) {
+            countRows(0, height);
+            return;
+        }
+        int bands = Math.min(height, Runtime.getRuntime().availableProcessors() * 4);
+        IntStream.range(0, bands).parallel()
+                .forEach(band -> countRows(band * height / bands, (band + 1) * height / bands));
+    }
+
+    /**
+     * Sets the number of surrounding mines of every cell of the given rows.
+     * For each column the mines of the row above, the row itself and the row
+     * below are summed once, and each cell adds up the sums of its own and its
+     * two neighbouring columns, minus its own mine.
+     *
+     * @param firstRow The first row to count.
+     * @param endRow   The row after the last row to count.
+     */
+    private void countRows(int firstRow, int endRow) {
+        int[] columnMines = new int[width + 2]; // padded with an empty column on each side
+        for (int y = firstRow; y < endRow; y++) {
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                int sum = mineAt(row + x);
+                if (y > 0) {
+                    sum += mineAt(row - width + x);
+                }
+                if (y < height - 1) {
+                    sum += mineAt(row + width + x);
+                }
+                columnMines[x + 1] = sum;
+            }
+            for (int x = 0; x < width; x++) {
+                int cell = row + x;
+                int bits = cells.get(cell);
+                int count = columnMines[x] + columnMines[x + 1] + columnMines[x + 2] - ((bits & CellStore.MINE) >> 4);
+                cells.set(cell, (bits & ~CellStore.COUNT) | count);
+            }
+        }
+    }
+
+    /**
+     * Returns 1 if the cell holds a mine and 0 otherwise.
+     *
+     * @param cell The flat index of the cell.
+     * @return The number of mines in the cell.
+     */
+    private int mineAt(int cell) {
+        return (cells.get(cell) & CellStore.MINE) >> 4;
+    }
+}
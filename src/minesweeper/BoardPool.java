@@ -0,0 +1,374 @@
+package minesweeper;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps boards generated ahead of time, so that the first click of a round does
+ * not have to wait for the mines to be placed or for a no-guess board to be found.
+ *
+ * <p>
+ * The pool holds up to a fixed number of layouts for each combination of width,
+ * height, mines and generation mode. A layout is a seed together with the cell
+ * the mines were placed around, which is all {@link BoardEngine} needs to rebuild
+ * the board, so pooled rounds are recorded and replayed like any other. Since the
+ * player's first click is not known in advance, each layout also keeps the cells
+ * it can be started from: every cell with no mine around it, and for no-guess
+ * boards only those from which the board can still be cleared by logic alone.
+ * Taking a layout looks for one that accepts the player's click; when none does,
+ * the caller generates the board as before. Either way the pool is topped up by
+ * a background producer on a fixed pool of daemon threads.
+ * </p>
+ *
+ * <p>
+ * The hit rate and the refill latency, from a layout being taken to its
+ * replacement being ready, are kept so the capacity can be sized.
+ * </p>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public final class BoardPool {
+    public static final int DEFAULT_CAPACITY = 8;
+    // Larger boards are cheap to generate on the first click and costly to keep
+    public static final int MAX_POOLED_CELLS = 1 << 16;
+    public static final long NO_GUESS_BUDGET_MILLIS = 1000;
+
+    private final int capacity;
+    private final Map<String, Shelf> shelves = new ConcurrentHashMap<>();
+    private final ExecutorService producer;
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder();
+    private final LongAdder refills = new LongAdder(), refillNanos = new LongAdder();
+    private final AtomicLong maxRefillNanos = new AtomicLong();
+
+    /**
+     * A board generated ahead of time.
+     */
+    public static final class Layout {
+        private final long seed;
+        private final int startCell;
+
+        /**
+         * Constructs a layout.
+         * @param seed the seed the mines are placed with
+         * @param startCell the flat index of the cell the mines are placed around
+         */
+        Layout(long seed, int startCell) {
+            this.seed = seed;
+            this.startCell = startCell;
+        }
+
+        /**
+         * Returns the seed the mines are placed with.
+         * @return the seed of the board
+         */
+        public long getSeed() {
+            return seed;
+        }
+
+        /**
+         * Returns the cell the mines are placed around.
+         * @return the flat index of the start cell
+         */
+        public int getStartCell() {
+            return startCell;
+        }
+    }
+
+    /**
+     * A pooled layout and the cells it can be started from.
+     */
+    private static final class Entry {
+        final Layout layout;
+        final BitSet clickCells;
+
+        Entry(Layout layout, BitSet clickCells) {
+            this.layout = layout;
+            this.clickCells = clickCells;
+        }
+    }
+
+    /**
+     * The layouts of one board size and mode, and the number being produced.
+     */
+    private static final class Shelf {
+        final int width, height, mines;
+        final boolean noGuess;
+        final ArrayDeque<Entry> entries = new ArrayDeque<>();
+        int pending;
+
+        Shelf(int width, int height, int mines, boolean noGuess) {
+            this.width = width;
+            this.height = height;
+            this.mines = mines;
+            this.noGuess = noGuess;
+        }
+    }
+
+    /**
+     * Constructs an empty pool.
+     *
+     * @param capacity The number of layouts kept for each board size and mode.
+     * @param threads  The number of background threads generating layouts.
+     */
+    public BoardPool(int capacity, int threads) {
+        if (capacity < 1 || threads < 1) {
+            throw new IllegalArgumentException("The capacity and the threads must be positive");
+        }
+        this.capacity = capacity;
+        this.producer = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger created = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "board-pool-" + created.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Starts generating layouts for a board, so they are ready by its first click.
+     * Boards the pool does not keep are ignored.
+     *
+     * @param width   The number of columns of the board.
+     * @param height  The number of rows of the board.
+     * @param mines   The total number of mines of the board.
+     * @param noGuess Whether the board must be clearable without guessing.
+     */
+    public void prefill(int width, int height, int mines, boolean noGuess) {
+        if (isPooled(width, height, mines)) {
+            refill(shelf(width, height, mines, noGuess));
+        }
+    }
+
+    /**
+     * Takes a layout that can be started from the player's first click, and
+     * starts generating its replacement.
+     *
+     * @param width     The number of columns of the board.
+     * @param height    The number of rows of the board.
+     * @param mines     The total number of mines of the board.
+     * @param noGuess   Whether the board must be clearable without guessing.
+     * @param clickCell The flat index of the player's first click.
+     * @return A layout accepting the click, or null if the pool has none.
+     */
+    public Layout take(int width, int height, int mines, boolean noGuess, int clickCell) {
+        if (!isPooled(width, height, mines)) {
+            return null;
+        }
+        Shelf shelf = shelf(width, height, mines, noGuess);
+        Layout layout = null;
+        synchronized (shelf) {
+            for (Iterator<Entry> it = shelf.entries.iterator(); it.hasNext(); ) {
+                Entry entry = it.next();
+                if (entry.clickCells.get(clickCell)) {
+                    it.remove();
+                    layout = entry.layout;
+                    break;
+                }
+            }
+        }
+        (layout != null ? hits : misses).increment();
+        refill(shelf);
+        return layout;
+    }
+
+    /**
+     * Returns whether boards of the given size are kept by the pool.
+     *
+     * @param width  The number of columns of the board.
+     * @param height The number of rows of the board.
+     * @param mines  The total number of mines of the board.
+     * @return true if layouts of the board are pooled.
+     */
+    public static boolean isPooled(int width, int height, int mines) {
+        long cells = (long) width * height;
+        return width >= GameLimits.MIN_SIDE && height >= GameLimits.MIN_SIDE && cells <= MAX_POOLED_CELLS
+                && mines > 0 && mines <= cells - 9;
+    }
+
+    /**
+     * Returns the shelf of a board size and mode, creating it the first time.
+     */
+    private Shelf shelf(int width, int height, int mines, boolean noGuess) {
+        String key = width + "x" + height + "/" + mines + (noGuess ? "/no-guess" : "");
+        return shelves.computeIfAbsent(key, k -> new Shelf(width, height, mines, noGuess));
+    }
+
+    /**
+     * Schedules the layouts a shelf is missing.
+     */
+    private void refill(Shelf shelf) {
+        int missing;
+        synchronized (shelf) {
+            missing = capacity - shelf.entries.size() - shelf.pending;
+            if (missing <= 0) {
+                return;
+            }
+            shelf.pending += missing;
+        }
+        long requested = System.nanoTime();
+        for (int i = 0; i < missing; i++) {
+            producer.execute(() -> produce(shelf, requested));
+        }
+    }
+
+    /**
+     * Generates one layout for a shelf and records how long it took to be ready.
+     */
+    private void produce(Shelf shelf, long requested) {
+        Entry entry = null;
+        try {
+            entry = generate(shelf.width, shelf.height, shelf.mines, shelf.noGuess);
+        } finally {
+            synchronized (shelf) {
+                shelf.pending--;
+                if (entry != null) {
+                    shelf.entries.add(entry);
+                }
+            }
+        }
+        if (entry != null) {
+            long latency = System.nanoTime() - requested;
+            refills.increment();
+            refillNanos.add(latency);
+            maxRefillNanos.accumulateAndGet(latency, Math::max);
+        }
+    }
+
+    /**
+     * Generates a layout around a random cell, or returns null if no no-guess
+     * board was found within NO_GUESS_BUDGET_MILLIS.
+     */
+    private static Entry generate(int width, int height, int mines, boolean noGuess) {
+        SplittableRandom random = new SplittableRandom();
+        int startCell = random.nextInt(width * height);
+        long seed = random.nextLong();
+        if (noGuess) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(NO_GUESS_BUDGET_MILLIS);
+            while (!NoGuessGenerator.isNoGuess(width, height, mines, startCell, seed)) {
+                if (System.nanoTime() - deadline > 0) {
+                    return null;
+                }
+                seed = random.nextLong();
+            }
+        }
+        BoardEngine engine = new BoardEngine(width, height, mines);
+        engine.start(engine.getX(startCell), engine.getY(startCell), false, seed);
+        return new Entry(new Layout(seed, startCell), clickCells(engine, noGuess));
+    }
+
+    /**
+     * Returns the cells a board can be started from. The cells with no mine around
+     * them form openings that a click reveals at once, so the no-guess property is
+     * checked once per opening rather than once per cell.
+     */
+    private static BitSet clickCells(BoardEngine engine, boolean noGuess) {
+        int width = engine.getWidth(), height = engine.getHeight(), cells = engine.getCellCount();
+        BitSet clickCells = new BitSet(cells);
+        BitSet seen = new BitSet(cells);
+        int[] stack = new int[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            if (seen.get(cell) || !isZero(engine, cell)) {
+                continue;
+            }
+            BitSet opening = new BitSet(cells);
+            int size = 0;
+            stack[size++] = cell;
+            seen.set(cell);
+            boolean hasStart = false;
+            while (size > 0) {
+                int current = stack[--size];
+                opening.set(current);
+                hasStart |= current == engine.getStartCell();
+                int x = engine.getX(current), y = engine.getY(current);
+                for (int dy = -1; dy <= 1; dy++) {
+                    for (int dx = -1; dx <= 1; dx++) {
+                        int nx = x + dx, ny = y + dy;
+                        if (engine.isValidCoordinate(nx, ny)) {
+                            int next = ny * width + nx;
+                            if (!seen.get(next) && isZero(engine, next)) {
+                                seen.set(next);
+                                stack[size++] = next;
+                            }
+                        }
+                    }
+                }
+            }
+            if (!noGuess || hasStart || NoGuessGenerator.isNoGuess(width, height, engine.getTotalMines(),
+                    engine.getStartCell(), cell, engine.getSeed())) {
+                clickCells.or(opening);
+            }
+        }
+        return clickCells;
+    }
+
+    /**
+     * Returns whether a cell holds no mine and has no mine around it.
+     */
+    private static boolean isZero(BoardEngine engine, int cell) {
+        return !engine.isMine(cell) && engine.getSurroundingMines(cell) == 0;
+    }
+
+    /**
+     * Returns the number of first clicks served from the pool.
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of first clicks the pool had no layout for.
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the share of first clicks served from the pool.
+     * @return the hit rate between 0 and 1, or 0 before the first take
+     */
+    public double getHitRate() {
+        long hits = getHits(), total = hits + getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Returns the mean time from a layout being requested to it being ready.
+     * @return the mean refill latency in milliseconds, or 0 before the first refill
+     */
+    public double getMeanRefillMillis() {
+        long count = refills.sum();
+        return count == 0 ? 0 : refillNanos.sum() / 1e6 / count;
+    }
+
+    /**
+     * Returns the longest time from a layout being requested to it being ready.
+     * @return the longest refill latency in milliseconds
+     */
+    public double getMaxRefillMillis() {
+        return maxRefillNanos.get() / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BoardPool[capacity=%d, hits=%d, misses=%d, hit rate=%.1f%%, refill mean=%.2fms max=%.2fms]",
+                capacity, getHits(), getMisses(), 100 * getHitRate(), getMeanRefillMillis(), getMaxRefillMillis());
+    }
+}
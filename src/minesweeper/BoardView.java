@@ -0,0 +1,51 @@
+package minesweeper;
+
+import javafx.scene.Node;
+
+/**
+ * Displays the state of a {@link BoardEngine} on screen.
+ *
+ * <p>
+ * A BoardView draws the cells of the engine owned by a {@link Board} and
+ * forwards the player's clicks back to it. After every move the Board only
+ * asks the view to redraw the cells listed in the move's {@link MoveResult}.
+ * </p>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public interface BoardView {
+
+    /**
+     * Returns the node to be added to the scene graph.
+     *
+     * @return The node displaying the board.
+     */
+    Node getNode();
+
+    /**
+     * Returns the width of the board on screen.
+     *
+     * @return The width of the view in pixels.
+     */
+    double getViewWidth();
+
+    /**
+     * Redraws a cell to display its current state in the engine.
+     *
+     * @param cell The flat index of the cell.
+     */
+    void drawCell(int cell);
+
+    /**
+     * Displays the mine the player clicked on as exploded.
+     *
+     * @param cell The flat index of the exploded mine.
+     */
+    void showExplosion(int cell);
+
+    /**
+     * Displays every mine of the board as an unexploded mine.
+     */
+    void showAllMines();
+}
@@ -0,0 +1,208 @@
+package minesweeper;
+
+import javafx.geometry.Orientation;
+import javafx.geometry.VPos;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.image.Image;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Displays the board on a single Canvas instead of one Button per cell.
+ *
+ * <p>
+ * The canvas only covers the visible part of the board, at most
+ * MAX_VIEW_WIDTH x MAX_VIEW_HEIGHT pixels, and scroll bars move it over larger
+ * boards. Clicks are mapped to cells arithmetically from their pixel
+ * coordinates, and after every move only the changed cells that are visible are
+ * painted again, so the cost of a move does not depend on the size of the board.
+ * </p>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public class CanvasBoardView implements BoardView {
+    static final int MAX_VIEW_WIDTH = 960, MAX_VIEW_HEIGHT = 720, MIN_CELL_SIZE = 16;
+    private static final Color OPEN_COLOR = Color.rgb(198, 198, 198), GRID_COLOR = Color.rgb(128, 128, 128);
+    private static final Color[] NUMBER_COLORS = {
+            null, Color.rgb(0, 0, 255), Color.rgb(0, 128, 0), Color.rgb(255, 0, 0), Color.rgb(0, 0, 128),
+            Color.rgb(128, 0, 0), Color.rgb(0, 128, 128), Color.rgb(0, 0, 0), Color.rgb(128, 128, 128)
+    };
+
+    private final BoardEngine engine;
+    private final int cellSize, visibleColumns, visibleRows;
+    private final Canvas canvas;
+    private final GraphicsContext graphics;
+    private final BorderPane pane;
+    private int firstColumn = 0, firstRow = 0;
+    private int explodedCell = -1;
+    private boolean minesShown = false;
+
+    /**
+     * Creates the canvas of the board and forwards its clicks to it.
+     *
+     * @param board The board to display.
+     */
+    public CanvasBoardView(Board board) {
+        engine = board.getEngine();
+        cellSize = cellSize(engine.getWidth(), engine.getHeight());
+        visibleColumns = Math.min(engine.getWidth(), MAX_VIEW_WIDTH / cellSize);
+        visibleRows = Math.min(engine.getHeight(), MAX_VIEW_HEIGHT / cellSize);
+
+        canvas = new Canvas(visibleColumns * cellSize, visibleRows * cellSize);
+        graphics = canvas.getGraphicsContext2D();
+        graphics.setFont(Font.font(cellSize * 0.6));
+        graphics.setTextAlign(TextAlignment.CENTER);
+        graphics.setTextBaseline(VPos.CENTER);
+        canvas.setOnMouseClicked(e -> {
+            int x = firstColumn + (int) (e.getX() / cellSize);
+            int y = firstRow + (int) (e.getY() / cellSize);
+            if (engine.isValidCoordinate(x, y)) {
+                board.handleClick(engine.index(x, y), e.getButton(), e.getClickCount());
+            }
+        });
+
+        pane = new BorderPane();
+        pane.setCenter(canvas);
+        if (visibleColumns < engine.getWidth()) {
+            ScrollBar horizontal = scrollBar(Orientation.HORIZONTAL, engine.getWidth(), visibleColumns);
+            horizontal.valueProperty().addListener((observable, oldValue, newValue) -> {
+                firstColumn = newValue.intValue();
+                drawVisibleCells();
+            });
+            pane.setBottom(horizontal);
+        }
+        if (visibleRows < engine.getHeight()) {
+            ScrollBar vertical = scrollBar(Orientation.VERTICAL, engine.getHeight(), visibleRows);
+            vertical.valueProperty().addListener((observable, oldValue, newValue) -> {
+                firstRow = newValue.intValue();
+                drawVisibleCells();
+            });
+            canvas.setOnScroll(e -> vertical.setValue(Math.max(vertical.getMin(),
+                    Math.min(vertical.getMax(), vertical.getValue() - Math.signum(e.getDeltaY()) * 3))));
+            pane.setRight(vertical);
+        }
+        drawVisibleCells();
+    }
+
+    /**
+     * Chooses the size of a cell so that as much of the board as possible fits
+     * in the view, without making the cells smaller than MIN_CELL_SIZE.
+     *
+     * @param width  The number of columns of the board.
+     * @param height The number of rows of the board.
+     * @return The size of a cell in pixels.
+     */
+    static int cellSize(int width, int height) {
+        int fit = Math.min(MAX_VIEW_WIDTH / width, MAX_VIEW_HEIGHT / height);
+        return Math.max(MIN_CELL_SIZE, Math.min(Tile.width, fit));
+    }
+
+    /**
+     * Creates a scroll bar that moves the view one cell at a time.
+     *
+     * @param orientation The orientation of the scroll bar.
+     * @param cells       The number of cells of the board in that direction.
+     * @param visible     The number of cells visible in that direction.
+     * @return The configured scroll bar.
+     */
+    private ScrollBar scrollBar(Orientation orientation, int cells, int visible) {
+        ScrollBar scrollBar = new ScrollBar();
+        scrollBar.setOrientation(orientation);
+        scrollBar.setMin(0);
+        scrollBar.setMax(cells - visible);
+        scrollBar.setVisibleAmount(visible);
+        scrollBar.setUnitIncrement(1);
+        scrollBar.setBlockIncrement(visible);
+        return scrollBar;
+    }
+
+    @Override
+    public Node getNode() {
+        return pane;
+    }
+
+    @Override
+    public double getViewWidth() {
+        return visibleColumns * cellSize;
+    }
+
+    @Override
+    public void drawCell(int cell) {
+        int x = engine.getX(cell) - firstColumn, y = engine.getY(cell) - firstRow;
+        if (x < 0 || x >= visibleColumns || y < 0 || y >= visibleRows) {
+            return; // painted when it is scrolled into view
+        }
+        paint(cell, x * cellSize, y * cellSize);
+    }
+
+    @Override
+    public void showExplosion(int cell) {
+        explodedCell = cell;
+        drawCell(cell);
+    }
+
+    @Override
+    public void showAllMines() {
+        minesShown = true;
+        drawVisibleCells();
+    }
+
+    /**
+     * Paints every cell currently visible in the canvas.
+     */
+    private void drawVisibleCells() {
+        int lastColumn = Math.min(firstColumn + visibleColumns, engine.getWidth());
+        int lastRow = Math.min(firstRow + visibleRows, engine.getHeight());
+        for (int y = firstRow; y < lastRow; y++) {
+            for (int x = firstColumn; x < lastColumn; x++) {
+                paint(engine.index(x, y), (x - firstColumn) * cellSize, (y - firstRow) * cellSize);
+            }
+        }
+    }
+
+    /**
+     * Paints a single cell at the given position of the canvas.
+     *
+     * @param cell The flat index of the cell.
+     * @param left The x-coordinate of the cell in the canvas.
+     * @param top  The y-coordinate of the cell in the canvas.
+     */
+    private void paint(int cell, double left, double top) {
+        if (cell == explodedCell) {
+            drawImage(TileImages.getExplosion(), left, top);
+        } else if (engine.isMine(cell) && (minesShown || engine.getCellState(cell) == BoardEngine.REVEALED)) {
+            drawImage(TileImages.getMine(), left, top);
+        } else if (engine.getCellState(cell) == BoardEngine.FLAGGED) {
+            drawImage(TileImages.getFlag(), left, top);
+        } else if (engine.getCellState(cell) == BoardEngine.HIDDEN) {
+            drawImage(TileImages.getTile(), left, top);
+        } else {
+            graphics.setFill(OPEN_COLOR);
+            graphics.fillRect(left, top, cellSize, cellSize);
+            graphics.setStroke(GRID_COLOR);
+            graphics.strokeRect(left + 0.5, top + 0.5, cellSize - 1, cellSize - 1);
+            int surroundingMines = engine.getSurroundingMines(cell);
+            if (surroundingMines != 0) {
+                graphics.setFill(NUMBER_COLORS[surroundingMines]);
+                graphics.fillText(Integer.toString(surroundingMines), left + cellSize / 2.0, top + cellSize / 2.0);
+            }
+        }
+    }
+
+    /**
+     * Draws one of the tile images over a cell.
+     *
+     * @param image The image to draw.
+     * @param left  The x-coordinate of the cell in the canvas.
+     * @param top   The y-coordinate of the cell in the canvas.
+     */
+    private void drawImage(Image image, double left, double top) {
+        graphics.drawImage(image, left, top, cellSize, cellSize);
+    }
+}
@@ -0,0 +1,175 @@
+package minesweeper;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Stores the whole state of every cell of a board in a single byte per cell.
+ *
+ * <p>
+ * Each byte packs the number of surrounding mines and four flags:
+ * </p>
+ *
+ * <pre>
+ * bits 0-3  number of surrounding mines (0-8)
+ * bit  4    the cell holds a mine
+ * bit  5    the cell is revealed
+ * bit  6    the cell is flagged
+ * bit  7    the cell is next to the first click and never holds a mine
+ * </pre>
+ *
+ * <p>
+ * Boards of up to DIRECT_THRESHOLD cells are stored in a byte array on the
+ * heap; larger boards are stored in a direct ByteBuffer, off the heap, so they
+ * neither need a heap large enough to hold them nor have to be copied by the
+ * garbage collector. Setting the system property minesweeper.offheap to true
+ * stores every board off the heap.
+ * </p>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public interface CellStore {
+    int COUNT = 0x0F, MINE = 0x10, REVEALED = 0x20, FLAGGED = 0x40, NO_MINE = 0x80;
+    int DIRECT_THRESHOLD = 100_000_000;
+
+    /**
+     * Returns the byte of a cell.
+     *
+     * @param cell The flat index of the cell.
+     * @return The bits of the cell, between 0 and 255.
+     */
+    int get(int cell);
+
+    /**
+     * Replaces the byte of a cell.
+     *
+     * @param cell  The flat index of the cell.
+     * @param value The bits of the cell, between 0 and 255.
+     */
+    void set(int cell, int value);
+
+    /**
+     * Returns the number of cells of the store.
+     *
+     * @return The number of cells.
+     */
+    int size();
+
+    /**
+     * Copies the bytes of all cells into an array.
+     *
+     * @param target The array receiving the cells.
+     * @param offset The index of the first cell in the array.
+     */
+    default void copyTo(byte[] target, int offset) {
+        for (int cell = 0; cell < size(); cell++) {
+            target[offset + cell] = (byte) get(cell);
+        }
+    }
+
+    /**
+     * Replaces the bytes of all cells with those of an array.
+     *
+     * @param source The array holding the cells.
+     * @param offset The index of the first cell in the array.
+     */
+    default void copyFrom(byte[] source, int offset) {
+        for (int cell = 0; cell < size(); cell++) {
+            set(cell, source[offset + cell] & 0xFF);
+        }
+    }
+
+    /**
+     * Creates a store for the given number of cells, on the heap or off the heap
+     * depending on its size.
+     *
+     * @param cells The number of cells of the board.
+     * @return A store with every cell cleared.
+     */
+    static CellStore allocate(int cells) {
+        if (cells > DIRECT_THRESHOLD || Boolean.getBoolean("minesweeper.offheap")) {
+            return new DirectCellStore(cells);
+        }
+        return new HeapCellStore(cells);
+    }
+}
+
+/**
+ * Stores the cells of a board in a byte array.
+ */
+final class HeapCellStore implements CellStore {
+    private final byte[] cells;
+
+    /**
+     * Constructs a store with every cell cleared.
+     * @param cells the number of cells of the board
+     */
+    HeapCellStore(int cells) {
+        this.cells = new byte[cells];
+    }
+
+    @Override
+    public int get(int cell) {
+        return cells[cell] & 0xFF;
+    }
+
+    @Override
+    public void set(int cell, int value) {
+        cells[cell] = (byte) value;
+    }
+
+    @Override
+    public int size() {
+        return cells.length;
+    }
+
+    @Override
+    public void copyTo(byte[] target, int offset) {
+        System.arraycopy(cells, 0, target, offset, cells.length);
+    }
+
+    @Override
+    public void copyFrom(byte[] source, int offset) {
+        System.arraycopy(source, offset, cells, 0, cells.length);
+    }
+}
+
+/**
+ * Stores the cells of a board in a direct ByteBuffer, outside the heap.
+ */
+final class DirectCellStore implements CellStore {
+    private final ByteBuffer cells;
+
+    /**
+     * Constructs a store with every cell cleared.
+     * @param cells the number of cells of the board
+     */
+    DirectCellStore(int cells) {
+        this.cells = ByteBuffer.allocateDirect(cells);
+    }
+
+    @Override
+    public int get(int cell) {
+        return cells.get(cell) & 0xFF;
+    }
+
+    @Override
+    public void set(int cell, int value) {
+        cells.put(cell, (byte) value);
+    }
+
+    @Override
+    public int size() {
+        return cells.capacity();
+    }
+
+    @Override
+    public void copyTo(byte[] target, int offset) {
+        cells.duplicate().clear().get(target, offset, cells.capacity());
+    }
+
+    @Override
+    public void copyFrom(byte[] source, int offset) {
+        cells.duplicate().clear().put(source, offset, cells.capacity());
+    }
+}
@@ -2,17 +2,19 @@ package minesweeper;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
-import javafx.scene.control.Alert;
-
 /**
  * The GameDescription class is responsible for checking the validity of the game description values
  * specified in the scenarioID txt file. It contains methods for retrieving the difficulty level,
- * total number of mines, maximum time allowed, and whether or not super mines are allowed in the game.
- * It also contains a method for displaying an error message if an invalid value or file format is detected.
+ * board dimensions, total number of mines, maximum time allowed, and whether or not super mines are
+ * allowed in the game.
  * The constructor takes in a scenarioID string, reads the corresponding txt file, and checks the validity of
- * the values specified in the file. If any of the values are invalid, an appropriate exception is thrown.
+ * the values specified in the file through the {@link ScenarioValidator}. If any of the values are invalid,
+ * an appropriate exception is thrown, whose message lists every error of the file, one per line.
+ * Showing the errors to the user is left to the caller, so descriptions can be read without JavaFX.
  * The class also contains two custom exceptions: InvalidDescriptionException and InvalidValueException.
  * InvalidDescriptionException is thrown when the game description file format is invalid. InvalidValueException
  * is thrown when any of the values specified in the game description file are invalid.
@@ -22,9 +24,11 @@ import javafx.scene.control.Alert;
 */
 public class GameDescription {
     private int difficultyLevel;
+    private int width, height;
     private int mines;
     private int maxTime;
     private int hasSuperMine;
+    private String scenarioID;
     private String message;
     
     /**
@@ -37,100 +41,58 @@ public class GameDescription {
      */
     public GameDescription(String scenarioID)
             throws FileNotFoundException, InvalidDescriptionException, InvalidValueException {
-        File file = new File("./src/medialab/" + scenarioID + ".txt");
+        this(scenarioID, new File("./src/medialab/" + scenarioID + ".txt"));
+    }
+
+    /**
+     * Constructs a GameDescription object by reading the given description file
+     * and setting the difficultyLevel, mines, maxTime, hasSuperMine, and message fields.
+     * @param scenarioID the scenario ID of the description
+     * @param file the txt file holding the description
+     * @throws FileNotFoundException if the txt file is not found
+     * @throws InvalidDescriptionException if the txt file has an invalid format
+     * @throws InvalidValueException if any of the game description values are invalid
+     */
+    GameDescription(String scenarioID, File file)
+            throws FileNotFoundException, InvalidDescriptionException, InvalidValueException {
+        this.scenarioID = scenarioID;
+        List<String> lines = new ArrayList<>();
         Scanner scanner = new Scanner(file);
         try {
-            if (!scanner.hasNextLine()) {
-                message = "Invalid game description file format";
-                errorDisplay(message);
-                throw new InvalidDescriptionException(message);
-            }
-
-            try {
-                difficultyLevel = Integer.parseInt(scanner.nextLine());
-            } catch (NumberFormatException e) {
-                message = "Invalid difficulty level value";
-                errorDisplay(message);
-                throw new InvalidValueException(message);
-            }
-
-            if (difficultyLevel != 1 && difficultyLevel != 2) {
-                message = "Invalid difficulty level value: " + difficultyLevel;
-                errorDisplay(message);
-                throw new InvalidValueException(message);
-            }
-
-            if (!scanner.hasNextLine()) {
-                message = "Invalid game description file format";
-                errorDisplay(message);
-                throw new InvalidDescriptionException(message);
-            }
-
-            try {
-                mines = Integer.parseInt(scanner.nextLine());
-            } catch (NumberFormatException e) {
-                message = "Invalid total mines value";
-                errorDisplay(message);
-                throw new InvalidValueException(message);
-            }
-
-            if (difficultyLevel == 1 && (mines < 9 || mines > 11)) {
-                message = "Invalid total mines value: " + mines;
-                errorDisplay(message);
-                throw new InvalidValueException(message);
-            } else if (difficultyLevel == 2 && (mines < 35 || mines > 45)) {
-                message = "Invalid total mines value: " + mines;
-                errorDisplay(message);
-                throw new InvalidValueException(message);
-            }
-
-            if (!scanner.hasNextLine()) {
-                message = "Invalid game description file format";
-                errorDisplay(message);
-                throw new InvalidDescriptionException(message);
-            }
-
-            try {
-                maxTime = Integer.parseInt(scanner.nextLine());
-            } catch (NumberFormatException e) {
-                message = "Invalid maximum time value";
-                errorDisplay(message);
-                throw new InvalidValueException(message);
+            while (scanner.hasNextLine()) {
+                lines.add(scanner.nextLine());
             }
+        } finally {
+            scanner.close();
+        }
 
-            if (difficultyLevel == 1 && (maxTime < 120 || maxTime > 180)) {
-                message = "Invalid maximum time value: " + maxTime;
-                errorDisplay(message);
-                throw new InvalidValueException(message);
-            } else if (difficultyLevel == 2 && (maxTime < 240 || maxTime > 360)) {
-                message = "Invalid maximum time value: " + maxTime;
-                errorDisplay(message);
-                throw new InvalidValueException(message);
+        ScenarioValidator.Result result = ScenarioValidator.validate(lines);
+        if (!result.isValid()) {
+            List<ScenarioValidator.Issue> issues = result.getIssues();
+            StringBuilder errors = new StringBuilder(issues.get(0).getMessage());
+            for (int i = 1; i < issues.size(); i++) {
+                errors.append('\n').append(issues.get(i).getMessage());
             }
-
-            if (!scanner.hasNextLine()) {
-                message = "Invalid game description file format";
-                errorDisplay(message);
+            message = errors.toString();
+            if (issues.get(0).isFormatError()) {
                 throw new InvalidDescriptionException(message);
             }
-
-            try {
-                hasSuperMine = Integer.parseInt(scanner.nextLine());
-            } catch (NumberFormatException e) {
-                message = "Invalid super-mine value";
-                errorDisplay(message);
-                throw new InvalidValueException(message);
-            }
-
-            if (difficultyLevel == 1 && hasSuperMine == 1) {
-                message = "Super-mine not allowed in level 1";
-                errorDisplay(message);
-                throw new InvalidValueException(message);
-            }
-        } finally {
-            scanner.close();
+            throw new InvalidValueException(message);
         }
+        difficultyLevel = result.getDifficultyLevel();
+        width = result.getWidth();
+        height = result.getHeight();
+        mines = result.getMines();
+        maxTime = result.getMaxTime();
+        hasSuperMine = result.hasSuperMine();
+    }
 
+    /**
+     * Returns the scenario ID the description was read from.
+     * @return the scenario ID
+     */
+    public String getScenarioID() {
+        return scenarioID;
     }
 
     /**
@@ -141,6 +103,22 @@ public class GameDescription {
         return difficultyLevel;
     }
 
+    /**
+     * Returns the number of columns of the game board.
+     * @return the width of the board
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the number of rows of the game board.
+     * @return the height of the board
+     */
+    public int getHeight() {
+        return height;
+    }
+
     /**
      * Returns the total number of mines in the game.
      * @return the total number of mines
@@ -164,16 +142,6 @@ public class GameDescription {
     public int hasSuperMine() {
         return hasSuperMine;
     }
-
-    /**
-     * Displays an error message to the user in an alert window.
-     * @param error_msg the error message to display
-     */
-    public void errorDisplay(String error_msg) {
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setHeaderText("Error Detected! " + error_msg);
-        alert.show();
-    }
 }
 
 /**
@@ -0,0 +1,173 @@
+package minesweeper;
+
+/**
+ * Computes the limits a scenario description must respect for a board of any size.
+ *
+ * <p>
+ * Each difficulty level has a default board, 9x9 for level 1 and 16x16 for level
+ * 2, with a range of allowed mines and seconds, which the default board keeps
+ * exactly. Any other board may have any mine density between MIN_DENSITY and
+ * MAX_DENSITY percent, whatever its level, while the time range of its level is
+ * scaled by the number of cells, so the time allowed per cell stays the same:
+ * </p>
+ *
+ * <pre>
+ * minMines = max(ceil(MIN_DENSITY * cells / 100), 1)
+ * maxMines = min(floor(MAX_DENSITY * cells / 100), cells - 9)
+ * minTime  = ceil(defaultMinTime * cells / defaultCells)
+ * maxTime  = floor(defaultMaxTime * cells / defaultCells)
+ * </pre>
+ *
+ * <p>
+ * At most cells - 9 mines are allowed, since the first click and its neighbours
+ * never hold a mine. Boards may be between MIN_SIDE and MAX_SIDE cells wide and high.
+ * </p>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public final class GameLimits {
+    public static final int MIN_SIDE = 5, MAX_SIDE = 2000;
+    // Mine density allowed on boards other than the default ones, in percent of the cells
+    public static final int MIN_DENSITY = 1, MAX_DENSITY = 90;
+
+    // Default board and ranges of each level, indexed by difficulty level
+    private static final int[] DEFAULT_SIDE = {0, 9, 16};
+    private static final int[] MIN_MINES = {0, 9, 35}, MAX_MINES = {0, 11, 45};
+    private static final int[] MIN_TIME = {0, 120, 240}, MAX_TIME = {0, 180, 360};
+
+    private GameLimits() {
+    }
+
+    /**
+     * Returns whether the given value is a valid difficulty level.
+     *
+     * @param difficulty The difficulty level.
+     * @return true if the level is 1 or 2.
+     */
+    public static boolean isValidDifficulty(int difficulty) {
+        return difficulty == 1 || difficulty == 2;
+    }
+
+    /**
+     * Returns the side of the default board of a difficulty level.
+     *
+     * @param difficulty The difficulty level.
+     * @return The width and height of the default board.
+     */
+    public static int defaultSide(int difficulty) {
+        return DEFAULT_SIDE[difficulty];
+    }
+
+    /**
+     * Returns whether the given value is a valid width or height.
+     *
+     * @param side The number of columns or rows.
+     * @return true if the side is between MIN_SIDE and MAX_SIDE.
+     */
+    public static boolean isValidSide(int side) {
+        return side >= MIN_SIDE && side <= MAX_SIDE;
+    }
+
+    /**
+     * Returns the fewest mines allowed on a board.
+     *
+     * @param difficulty The difficulty level.
+     * @param width      The number of columns of the board.
+     * @param height     The number of rows of the board.
+     * @return The minimum number of mines.
+     */
+    public static int minMines(int difficulty, int width, int height) {
+        if (isDefaultBoard(difficulty, width, height)) {
+            return MIN_MINES[difficulty];
+        }
+        long cells = (long) width * height;
+        return (int) Math.max((MIN_DENSITY * cells + 99) / 100, 1);
+    }
+
+    /**
+     * Returns the most mines allowed on a board.
+     *
+     * @param difficulty The difficulty level.
+     * @param width      The number of columns of the board.
+     * @param height     The number of rows of the board.
+     * @return The maximum number of mines.
+     */
+    public static int maxMines(int difficulty, int width, int height) {
+        if (isDefaultBoard(difficulty, width, height)) {
+            return MAX_MINES[difficulty];
+        }
+        long cells = (long) width * height;
+        return (int) Math.min(MAX_DENSITY * cells / 100, cells - 9);
+    }
+
+    /**
+     * Returns whether a board is the default board of its difficulty level.
+     *
+     * @param difficulty The difficulty level.
+     * @param width      The number of columns of the board.
+     * @param height     The number of rows of the board.
+     * @return true if the board has the default width and height of the level.
+     */
+    public static boolean isDefaultBoard(int difficulty, int width, int height) {
+        return width == DEFAULT_SIDE[difficulty] && height == DEFAULT_SIDE[difficulty];
+    }
+
+    /**
+     * Returns the least time allowed for a board.
+     *
+     * @param difficulty The difficulty level.
+     * @param cells      The number of cells of the board.
+     * @return The minimum time in seconds.
+     */
+    public static int minTime(int difficulty, long cells) {
+        return (int) scaleUp(MIN_TIME[difficulty], cells, difficulty);
+    }
+
+    /**
+     * Returns the most time allowed for a board.
+     *
+     * @param difficulty The difficulty level.
+     * @param cells      The number of cells of the board.
+     * @return The maximum time in seconds.
+     */
+    public static int maxTime(int difficulty, long cells) {
+        return (int) scaleDown(MAX_TIME[difficulty], cells, difficulty);
+    }
+
+    /**
+     * Returns whether a super-mine is allowed at the given difficulty level.
+     *
+     * @param difficulty The difficulty level.
+     * @return true if the level allows a super-mine.
+     */
+    public static boolean allowsSuperMine(int difficulty) {
+        return difficulty == 2;
+    }
+
+    /**
+     * Scales a value of the default board to the given number of cells, rounding up.
+     *
+     * @param value      The value on the default board.
+     * @param cells      The number of cells of the board.
+     * @param difficulty The difficulty level.
+     * @return The scaled value.
+     */
+    private static long scaleUp(int value, long cells, int difficulty) {
+        long defaultCells = (long) DEFAULT_SIDE[difficulty] * DEFAULT_SIDE[difficulty];
+        return (value * cells + defaultCells - 1) / defaultCells;
+    }
+
+    /**
+     * Scales a value of the default board to the given number of cells, rounding down.
+     *
+     * @param value      The value on the default board.
+     * @param cells      The number of cells of the board.
+     * @param difficulty The difficulty level.
+     * @return The scaled value.
+     */
+    private static long scaleDown(int value, long cells, int difficulty) {
+        long defaultCells = (long) DEFAULT_SIDE[difficulty] * DEFAULT_SIDE[difficulty];
+        return value * cells / defaultCells;
+    }
+}
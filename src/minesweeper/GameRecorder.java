@@ -0,0 +1,144 @@
+package minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * Records every move of a round as a compact stream of events.
+ *
+ * <p>
+ * The stream starts with a header holding the dimensions and mines of the
+ * board. The first click is recorded with the seed and the start cell the mines
+ * were placed around, so the board can be rebuilt exactly, and every later move
+ * is one event. Numbers are written as unsigned varints, 7 bits per byte with
+ * the high bit set on every byte but the last, so a typical event of a small
+ * board takes 3 bytes:
+ * </p>
+ *
+ * <pre>
+ * header  "MSEV" magic, version byte, width, height, mines
+ * event   milliseconds since the previous event, cell &lt;&lt; 3 | action
+ * START   followed by the 8-byte seed, the start cell and a super-mine byte
+ * </pre>
+ *
+ * <p>
+ * A recording is read back by {@link ReplayEngine}.
+ * </p>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public final class GameRecorder {
+    public static final int START = 0, REVEAL = 1, FLAG = 2, CHORD = 3, SUPER_MINE = 4;
+    static final int MAGIC = 0x4D534556; // "MSEV"
+    static final int VERSION = 1;
+    static final int ACTION_BITS = 3, ACTION_MASK = (1 << ACTION_BITS) - 1;
+
+    private byte[] buffer = new byte[256];
+    private int size;
+    private int events;
+    private long lastTick;
+
+    /**
+     * Starts the recording of a round.
+     *
+     * @param width  The number of columns of the board.
+     * @param height The number of rows of the board.
+     * @param mines  The total number of mines of the board.
+     */
+    public GameRecorder(int width, int height, int mines) {
+        writeLong(MAGIC, 4);
+        writeByte(VERSION);
+        writeVarint(width);
+        writeVarint(height);
+        writeVarint(mines);
+        lastTick = System.nanoTime() / 1_000_000;
+    }
+
+    /**
+     * Continues a recording, for a round resumed from a saved game.
+     *
+     * @param recording The bytes recorded so far.
+     * @param events    The number of events recorded so far.
+     */
+    GameRecorder(byte[] recording, int events) {
+        buffer = Arrays.copyOf(recording, Math.max(256, recording.length * 2));
+        size = recording.length;
+        this.events = events;
+        lastTick = System.nanoTime() / 1_000_000;
+    }
+
+    /**
+     * Records the first click of the round and the board it started.
+     *
+     * @param cell          The flat index of the player's first click.
+     * @param seed          The seed the mines were placed with.
+     * @param startCell     The flat index of the cell the mines were placed around.
+     * @param withSuperMine Whether the first mine placed became the super-mine.
+     */
+    public void start(int cell, long seed, int startCell, boolean withSuperMine) {
+        record(START, cell);
+        writeLong(seed, 8);
+        writeVarint(startCell);
+        writeByte(withSuperMine ? 1 : 0);
+    }
+
+    /**
+     * Records a move of the player.
+     *
+     * @param action The kind of move: REVEAL, FLAG, CHORD or SUPER_MINE.
+     * @param cell   The flat index of the cell the move was made on.
+     */
+    public void record(int action, int cell) {
+        long tick = System.nanoTime() / 1_000_000;
+        writeVarint(tick - lastTick);
+        writeVarint(((long) cell << ACTION_BITS) | action);
+        lastTick = tick;
+        events++;
+    }
+
+    /**
+     * Returns the number of events recorded so far.
+     * @return the number of events
+     */
+    public int getEventCount() {
+        return events;
+    }
+
+    /**
+     * Returns the recording so far.
+     * @return a copy of the recorded bytes
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * Appends an unsigned varint.
+     */
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+
+    /**
+     * Appends the lowest bytes of a value, the most significant first.
+     */
+    private void writeLong(long value, int bytes) {
+        for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+            writeByte((int) (value >>> shift));
+        }
+    }
+
+    /**
+     * Appends a byte, growing the buffer when it is full.
+     */
+    private void writeByte(int value) {
+        if (size == buffer.length) {
+            buffer = Arrays.copyOf(buffer, size * 2);
+        }
+        buffer[size++] = (byte) value;
+    }
+}
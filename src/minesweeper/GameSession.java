@@ -0,0 +1,110 @@
+package minesweeper;
+
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+
+/**
+ * Holds the counters of the game currently being played, as observable properties.
+ *
+ * <p>
+ * The labels of the header bar are bound to these properties once, when the
+ * game starts. Updating the time left or the flags left afterwards is a single
+ * property write, and the bound labels only change their text, so the layout
+ * of the header is never rebuilt while the game is played.
+ * </p>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public class GameSession {
+    private final int maxTime;
+    private final IntegerProperty timeLeft;
+    private final IntegerProperty totalMines;
+    private final IntegerProperty flagsLeft;
+
+    /**
+     * Constructs the session of a new game.
+     *
+     * @param maxTime The time allowed for the game in seconds.
+     * @param mines   The total number of mines of the game.
+     */
+    public GameSession(int maxTime, int mines) {
+        this.maxTime = maxTime;
+        this.timeLeft = new SimpleIntegerProperty(this, "timeLeft", maxTime);
+        this.totalMines = new SimpleIntegerProperty(this, "totalMines", mines);
+        this.flagsLeft = new SimpleIntegerProperty(this, "flagsLeft", mines);
+    }
+
+    /**
+     * Returns the time allowed for the game.
+     * @return the maximum time in seconds
+     */
+    public int getMaxTime() {
+        return maxTime;
+    }
+
+    /**
+     * Returns the time left before the game is lost.
+     * @return the time left in seconds
+     */
+    public int getTimeLeft() {
+        return timeLeft.get();
+    }
+
+    /**
+     * Sets the time left before the game is lost.
+     * @param seconds the time left in seconds
+     */
+    public void setTimeLeft(int seconds) {
+        timeLeft.set(seconds);
+    }
+
+    /**
+     * Returns the property holding the time left.
+     * @return the time left property
+     */
+    public ReadOnlyIntegerProperty timeLeftProperty() {
+        return timeLeft;
+    }
+
+    /**
+     * Returns the total number of mines of the game.
+     * @return the total number of mines
+     */
+    public int getTotalMines() {
+        return totalMines.get();
+    }
+
+    /**
+     * Returns the property holding the total number of mines.
+     * @return the total mines property
+     */
+    public ReadOnlyIntegerProperty totalMinesProperty() {
+        return totalMines;
+    }
+
+    /**
+     * Returns the number of flags the player can still place.
+     * @return the number of flags left
+     */
+    public int getFlagsLeft() {
+        return flagsLeft.get();
+    }
+
+    /**
+     * Sets the number of flags the player can still place.
+     * @param flags the number of flags left
+     */
+    public void setFlagsLeft(int flags) {
+        flagsLeft.set(flags);
+    }
+
+    /**
+     * Returns the property holding the number of flags left.
+     * @return the flags left property
+     */
+    public ReadOnlyIntegerProperty flagsLeftProperty() {
+        return flagsLeft;
+    }
+}
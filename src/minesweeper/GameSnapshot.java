@@ -0,0 +1,225 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+/**
+ * Holds a game in progress, so that it can be saved and resumed later.
+ *
+ * <p>
+ * A snapshot is taken on the JavaFX Application Thread by copying the state of
+ * the {@link BoardEngine}, one byte per cell, together with the counters kept
+ * outside it: the time left, the tries and the moves recorded so far. Copying is
+ * all that happens on that thread; the snapshot is encoded into its binary form
+ * by whichever thread writes it. The format is versioned and ends with a CRC32 of
+ * everything before it, so a damaged file is rejected rather than resumed:
+ * </p>
+ *
+ * <pre>
+ * "MSSV" magic, version byte
+ * width, height, mines, difficulty, max time, time left, tries (ints)
+ * seed (long), start cell, super-mine, flags left, hidden safe cells (ints)
+ * scenario (length-prefixed UTF-8), recorded events (int), recording (length-prefixed)
+ * one byte per cell, as stored by CellStore
+ * CRC32 (int)
+ * </pre>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public final class GameSnapshot {
+    static final int MAGIC = 0x4D535356; // "MSSV"
+    static final int VERSION = 1;
+
+    private final int width, height, mines, difficulty, maxTime, timeLeft, tries;
+    private final long seed;
+    private final int startCell, superMine, flagsLeft, hiddenSafeCells;
+    private final String scenarioID;
+    private final int events;
+    private final byte[] recording, cells;
+
+    /**
+     * Constructs a snapshot from its values.
+     */
+    private GameSnapshot(int width, int height, int mines, int difficulty, int maxTime, int timeLeft, int tries,
+            long seed, int startCell, int superMine, int flagsLeft, int hiddenSafeCells, String scenarioID,
+            int events, byte[] recording, byte[] cells) {
+        this.width = width;
+        this.height = height;
+        this.mines = mines;
+        this.difficulty = difficulty;
+        this.maxTime = maxTime;
+        this.timeLeft = timeLeft;
+        this.tries = tries;
+        this.seed = seed;
+        this.startCell = startCell;
+        this.superMine = superMine;
+        this.flagsLeft = flagsLeft;
+        this.hiddenSafeCells = hiddenSafeCells;
+        this.scenarioID = scenarioID;
+        this.events = events;
+        this.recording = recording;
+        this.cells = cells;
+    }
+
+    /**
+     * Copies the state of a game in progress.
+     *
+     * @param engine     The engine of the game.
+     * @param recorder   The recording of the moves of the game.
+     * @param difficulty The difficulty level of the game.
+     * @param scenarioID The scenario the game was started from.
+     * @param maxTime    The time allowed for the game in seconds.
+     * @param timeLeft   The time left in seconds.
+     * @param tries      The number of tries made so far.
+     * @return The snapshot of the game.
+     */
+    public static GameSnapshot capture(BoardEngine engine, GameRecorder recorder, int difficulty, String scenarioID,
+            int maxTime, int timeLeft, int tries) {
+        byte[] cells = new byte[engine.getCellCount()];
+        engine.copyCells(cells, 0);
+        return new GameSnapshot(engine.getWidth(), engine.getHeight(), engine.getTotalMines(), difficulty, maxTime,
+                timeLeft, tries, engine.getSeed(), engine.getStartCell(), engine.getSuperMine(),
+                engine.getFlagsLeft(), engine.getHiddenSafeCells(), scenarioID, recorder.getEventCount(),
+                recorder.toByteArray(), cells);
+    }
+
+    /**
+     * Encodes the snapshot into its binary form.
+     *
+     * @return The bytes of the snapshot.
+     */
+    public byte[] toByteArray() {
+        byte[] scenario = scenarioID.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer out = ByteBuffer.allocate(5 + 11 * 4 + 8 + 4 + scenario.length + 8 + recording.length
+                + cells.length + 4);
+        out.putInt(MAGIC).put((byte) VERSION);
+        out.putInt(width).putInt(height).putInt(mines).putInt(difficulty).putInt(maxTime).putInt(timeLeft)
+                .putInt(tries);
+        out.putLong(seed).putInt(startCell).putInt(superMine).putInt(flagsLeft).putInt(hiddenSafeCells);
+        out.putInt(scenario.length).put(scenario);
+        out.putInt(events).putInt(recording.length).put(recording);
+        out.put(cells);
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), 0, out.position());
+        out.putInt((int) crc.getValue());
+        return out.array();
+    }
+
+    /**
+     * Decodes a snapshot from its binary form.
+     *
+     * @param bytes The bytes of the snapshot.
+     * @return The decoded snapshot.
+     * @throws IOException if the bytes are not a valid snapshot of this version.
+     */
+    public static GameSnapshot fromByteArray(byte[] bytes) throws IOException {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes);
+            if (in.getInt() != MAGIC || in.get() != VERSION) {
+                throw new IOException("Not a saved game of version " + VERSION);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes, 0, bytes.length - 4);
+            if (ByteBuffer.wrap(bytes, bytes.length - 4, 4).getInt() != (int) crc.getValue()) {
+                throw new IOException("The saved game is damaged");
+            }
+            int width = in.getInt(), height = in.getInt(), mines = in.getInt(), difficulty = in.getInt();
+            int maxTime = in.getInt(), timeLeft = in.getInt(), tries = in.getInt();
+            long seed = in.getLong();
+            int startCell = in.getInt(), superMine = in.getInt(), flagsLeft = in.getInt();
+            int hiddenSafeCells = in.getInt();
+            byte[] scenario = new byte[in.getInt()];
+            in.get(scenario);
+            int events = in.getInt();
+            byte[] recording = new byte[in.getInt()];
+            in.get(recording);
+            if ((long) width * height != in.remaining() - 4) {
+                throw new IOException("The saved game does not hold " + width + "x" + height + " cells");
+            }
+            byte[] cells = new byte[width * height];
+            in.get(cells);
+            return new GameSnapshot(width, height, mines, difficulty, maxTime, timeLeft, tries, seed, startCell,
+                    superMine, flagsLeft, hiddenSafeCells, new String(scenario, StandardCharsets.UTF_8), events,
+                    recording, cells);
+        } catch (BufferUnderflowException | NegativeArraySizeException | IllegalArgumentException e) {
+            throw new IOException("The saved game is damaged", e);
+        }
+    }
+
+    /**
+     * Reads a snapshot from a file.
+     *
+     * @param file The file holding the snapshot.
+     * @return The decoded snapshot.
+     * @throws IOException if the file can not be read or is not a valid snapshot.
+     */
+    public static GameSnapshot read(Path file) throws IOException {
+        return fromByteArray(Files.readAllBytes(file));
+    }
+
+    /**
+     * Rebuilds the engine of the game.
+     *
+     * @return A new engine in the saved state.
+     */
+    public BoardEngine restoreEngine() {
+        return new BoardEngine(width, height, mines, cells, 0, flagsLeft, hiddenSafeCells, superMine, startCell,
+                seed);
+    }
+
+    /**
+     * Rebuilds the recorder of the game, so the moves made after resuming are
+     * added to the same recording.
+     *
+     * @return A recorder holding the moves made before the game was saved.
+     */
+    public GameRecorder restoreRecorder() {
+        return new GameRecorder(recording, events);
+    }
+
+    /**
+     * Returns the difficulty level of the game.
+     * @return the difficulty level
+     */
+    public int getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Returns the scenario the game was started from.
+     * @return the scenario id, empty if unknown
+     */
+    public String getScenarioID() {
+        return scenarioID;
+    }
+
+    /**
+     * Returns the time allowed for the game.
+     * @return the maximum time in seconds
+     */
+    public int getMaxTime() {
+        return maxTime;
+    }
+
+    /**
+     * Returns the time that was left when the game was saved.
+     * @return the time left in seconds
+     */
+    public int getTimeLeft() {
+        return timeLeft;
+    }
+
+    /**
+     * Returns the number of tries made before the game was saved.
+     * @return the number of tries
+     */
+    public int getTries() {
+        return tries;
+    }
+}
@@ -0,0 +1,83 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Writes the mine layout of a game to the mines.txt file in one go.
+ *
+ * <p>
+ * The whole layout is built in memory, one "row, column, supermine" line per
+ * mine with the super-mine first, and written with
+ * {@link PersistenceService#writeAtomically(Path, byte[])}. Readers therefore
+ * see either the previous file or the complete new one, never a half-written
+ * layout. Writes can be handed to the writer
+ * thread of the {@link PersistenceService} so the JavaFX Application Thread
+ * never waits on the disk.
+ * </p>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public final class MineLayoutWriter {
+
+    private MineLayoutWriter() {
+    }
+
+    /**
+     * Builds the text of the mines.txt file of a board.
+     *
+     * @param engine The engine holding the placed mines.
+     * @return One "row, column, supermine" line per mine, the super-mine first.
+     */
+    public static String format(BoardEngine engine) {
+        StringBuilder layout = new StringBuilder(engine.getTotalMines() * 12);
+        int superMine = engine.getSuperMine();
+        if (superMine >= 0) {
+            appendMine(layout, engine.getY(superMine), engine.getX(superMine), 1);
+        }
+        for (int cell = 0; cell < engine.getCellCount(); cell++) {
+            if (engine.isMine(cell) && cell != superMine) {
+                appendMine(layout, engine.getY(cell), engine.getX(cell), 0);
+            }
+        }
+        return layout.toString();
+    }
+
+    /**
+     * Appends the line of a single mine to the layout.
+     *
+     * @param layout    The layout being built.
+     * @param row       The row index of the mine.
+     * @param column    The column index of the mine.
+     * @param supermine 1 for the super-mine, 0 for a regular mine.
+     */
+    private static void appendMine(StringBuilder layout, int row, int column, int supermine) {
+        layout.append(row).append(", ").append(column).append(", ").append(supermine).append('\n');
+    }
+
+    /**
+     * Writes the layout of a board to the given file.
+     *
+     * @param engine The engine holding the placed mines.
+     * @param file   The file to write.
+     * @throws IOException if the file can not be written
+     */
+    public static void write(BoardEngine engine, Path file) throws IOException {
+        PersistenceService.writeAtomically(file, format(engine).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the layout of a board to the given file on a background thread.
+     * The layout is built right away, so the engine can keep changing while
+     * the file is written.
+     *
+     * @param engine The engine holding the placed mines.
+     * @param file   The file to write.
+     */
+    public static void writeAsync(BoardEngine engine, Path file) {
+        byte[] layout = format(engine).getBytes(StandardCharsets.UTF_8);
+        PersistenceService.shared().write(file, () -> layout);
+    }
+}
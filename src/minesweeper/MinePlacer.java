@@ -0,0 +1,139 @@
+package minesweeper;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Chooses the cells that hold the mines of a board, given a seed.
+ *
+ * <p>
+ * The cells outside the 3x3 area around the player's first click are the
+ * eligible cells. The mines are picked with a partial Fisher-Yates shuffle over
+ * the eligible cells, so placing them takes time proportional to the number of
+ * mines and never depends on luck, whatever the mine density. The shuffle is
+ * kept sparse: only the positions it swapped are stored, in a small open
+ * addressing table, so no array over all the cells of the board is needed.
+ * The same width, height, mines, first click and seed always give the same
+ * layout, which is how a game is replayed.
+ * </p>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public final class MinePlacer {
+
+    private MinePlacer() {
+    }
+
+    /**
+     * Picks the cells of the mines.
+     *
+     * @param width     The number of columns of the board.
+     * @param height    The number of rows of the board.
+     * @param mines     The number of mines to place.
+     * @param safeCell  The flat index of the player's first click.
+     * @param seed      The seed of the random number generator.
+     * @return The flat indices of the mines, in the order they were placed.
+     */
+    public static int[] place(int width, int height, int mines, int safeCell, long seed) {
+        int[] excluded = safeArea(width, height, safeCell);
+        int eligible = width * height - excluded.length;
+        if (mines < 0 || mines > eligible) {
+            throw new IllegalArgumentException("Not enough room for " + mines + " mines");
+        }
+
+        Random random = new Random(seed);
+        int[] placed = new int[mines];
+        long tableSize = Long.highestOneBit(Math.max(mines, 1)) << 2; // long, so it can not overflow
+        if (tableSize >= eligible) { // dense boards: a plain array of ranks is smaller than the table
+            int[] ranks = new int[eligible];
+            for (int i = 0; i < eligible; i++) {
+                ranks[i] = i;
+            }
+            for (int i = 0; i < mines; i++) {
+                int j = i + random.nextInt(eligible - i);
+                int rank = ranks[j];
+                ranks[j] = ranks[i];
+                placed[i] = toCell(rank, excluded);
+            }
+            return placed;
+        }
+
+        int capacity = (int) tableSize; // below eligible, so it fits in an int
+        int mask = capacity - 1;
+        int[] keys = new int[capacity];
+        int[] values = new int[capacity];
+        Arrays.fill(keys, -1);
+        for (int i = 0; i < mines; i++) {
+            int j = i + random.nextInt(eligible - i);
+            int slotJ = slot(keys, mask, j);
+            int valueJ = keys[slotJ] == j ? values[slotJ] : j;
+            int slotI = slot(keys, mask, i);
+            int valueI = keys[slotI] == i ? values[slotI] : i;
+            keys[slotJ] = j; // position i is never read again, so only j needs the swapped value
+            values[slotJ] = valueI;
+            placed[i] = toCell(valueJ, excluded);
+        }
+        return placed;
+    }
+
+    /**
+     * Returns the cells of the 3x3 area around the first click, in ascending order.
+     *
+     * @param width    The number of columns of the board.
+     * @param height   The number of rows of the board.
+     * @param safeCell The flat index of the player's first click.
+     * @return The flat indices of the cells that can not hold a mine.
+     */
+    static int[] safeArea(int width, int height, int safeCell) {
+        int x = safeCell % width, y = safeCell / width;
+        int[] area = new int[9];
+        int count = 0;
+        for (int offsetY = -1; offsetY <= 1; offsetY++) {
+            for (int offsetX = -1; offsetX <= 1; offsetX++) {
+                int newX = x + offsetX, newY = y + offsetY;
+                if (newX >= 0 && newX < width && newY >= 0 && newY < height) {
+                    area[count++] = newY * width + newX;
+                }
+            }
+        }
+        return Arrays.copyOf(area, count);
+    }
+
+    /**
+     * Finds the slot of a position in the open addressing table, which is
+     * either the slot holding it or the empty slot where it would be stored.
+     *
+     * @param keys     The positions stored in the table, -1 for empty slots.
+     * @param mask     The size of the table minus one.
+     * @param position The position of the shuffle to look up.
+     * @return The slot of the position.
+     */
+    private static int slot(int[] keys, int mask, int position) {
+        int hash = position * 0x9E3779B9;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (keys[slot] != -1 && keys[slot] != position) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Converts the rank of an eligible cell to its flat index by skipping the
+     * excluded cells that come before it.
+     *
+     * @param rank     The rank of the cell among the eligible cells.
+     * @param excluded The excluded cells, in ascending order.
+     * @return The flat index of the cell.
+     */
+    private static int toCell(int rank, int[] excluded) {
+        int cell = rank;
+        for (int skipped : excluded) {
+            if (skipped > cell) {
+                break;
+            }
+            cell++;
+        }
+        return cell;
+    }
+}
@@ -1,21 +1,21 @@
 package minesweeper;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.Comparator;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import javafx.util.Duration;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.application.Application;
 import javafx.event.EventHandler;
 import javafx.event.ActionEvent;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 import javafx.geometry.Pos;
@@ -62,10 +62,31 @@ public class Minesweeper extends Application {
     public Label mineCountLabel, markedCountLabel, timeLabel;
 	public String selectedGame;
 
-	public static int timer = 0, mineCount = 0, superMine, labelWidth;
-	public static int round_winner, round_time = 0, round_mines, round_tries = 0;
+	public static int superMine, labelWidth;
+	public static int round_winner, round_mines, round_tries = 0;
 	public static boolean superMineFlag = false;
 	private static File minesFile = new File("./src/mines/mines.txt");
+	private static File minesBinaryFile = new File("./src/mines/mines.bin");
+	// Mine layout output: "text" (mines.txt), "binary" (mines.bin) or "both"
+	private static final String layoutFormat = System.getProperty("minesweeper.layout", "text");
+	private static final Path roundsJournalFile = Paths.get("./src/recentgames/rounds.journal");
+	private static final Path roundsAggregateFile = Paths.get("./src/recentgames/rounds.stats");
+	private static final Path replaysDirectory = Paths.get("./src/recentgames/replays");
+	private static final Path savedGameFile = Paths.get("./src/recentgames/saved.game");
+	// The game in progress is saved every AUTOSAVE_SECONDS seconds of the countdown
+	private static final int AUTOSAVE_SECONDS = 5;
+	private static RoundsJournal roundsJournal;
+	private static RoundsAggregate roundsAggregate;
+	private static String scenarioID = "";
+	private static final ScenarioRegistry scenarios = new ScenarioRegistry(Paths.get("./src/medialab/"));
+	// Every file is read and written on its writer thread, never on the JavaFX Application Thread
+	private static final PersistenceService persistence = PersistenceService.shared();
+	// Whether savedGameFile holds a game to resume, as of the last save or deletion requested
+	private static boolean savedGame;
+	private static MenuItem resumeMenuItem;
+	// Whether a scenario is being loaded, during which the game can not be started
+	private static boolean loadingScenario;
+	private static MenuItem startMenuItem;
 
 	BorderPane root = new BorderPane();
     VBox vBox = new VBox();
@@ -74,6 +95,8 @@ public class Minesweeper extends Application {
     GameDescription check;
 	RoundsStats round;
 	static Timeline time;
+	static Board board;
+	static GameSession session;
 
 	/**
 	 * The main entry point of the Minesweeper application.
@@ -82,7 +105,10 @@ public class Minesweeper extends Application {
 	 */
 	public static void main(String[] args) {
 		launch(args);
-		deleteMinesFile();
+		shutdown();
+		if (Boolean.getBoolean("minesweeper.poolStats")) {
+			System.out.println(Board.boardPool);
+		}
 	}
 
 	/**
@@ -95,7 +121,9 @@ public class Minesweeper extends Application {
 	@Override
 	public void start(Stage primaryStage) throws Exception {
 
+		scenarios.start();
 		vBox.getChildren().add(0, menuBar());
+		persistence.submit(() -> Files.exists(savedGameFile), Minesweeper::setSavedGame, null);
 		primaryStage.setScene(scene);
 		primaryStage.setTitle("MediaLab Minesweeper");
 		primaryStage.setResizable(false);
@@ -108,19 +136,72 @@ public class Minesweeper extends Application {
 	/**
 	 * Resets all variables to their initial state when starting a new game. 
 	 * This method clears the  game board, deletes the mines.txt file if it exists
-	 * and initializes a new board with the appropriate dimensions.
+	 * as well as the saved game, and initializes a new board with the appropriate
+	 * dimensions.
 	 */
 	public void resetVariables() {
 		Board.startGame = true;
 		Board.firstClick = false;
 		superMineFlag = false;
 		round_tries = 0;
-		if (minesFile.exists()) {
-			minesFile.delete();
+		persistence.delete(minesFile.toPath());
+		persistence.delete(minesBinaryFile.toPath());
+		persistence.delete(savedGameFile);
+		setSavedGame(false);
+		board = new Board();
+		showBoard();
+	}
+
+	/**
+	 * Resumes the game saved when the application was last closed, or by the
+	 * last autosave, with its board, timer, tries and recorded moves. The saved
+	 * game is read by the writer thread, after any save still queued.
+	 */
+	public void resumeGame() {
+		persistence.submit(() -> GameSnapshot.read(savedGameFile), this::resumeGame, e -> {
+			setSavedGame(false);
+			errorDisplay(e.getMessage());
+		});
+	}
+
+	/**
+	 * Replaces the game in progress, if any, with a saved one.
+	 *
+	 * @param saved the snapshot of the saved game
+	 */
+	private void resumeGame(GameSnapshot saved) {
+		if (Board.startGame) {
+			time.stop();
 		}
+		BoardEngine engine = saved.restoreEngine();
+		Board.difficulty = saved.getDifficulty();
+		Board.totalMines = engine.getTotalMines();
+		Board.gameWidth = engine.getWidth();
+		Board.gameHeight = engine.getHeight();
+		scenarioID = saved.getScenarioID();
+		session = new GameSession(saved.getMaxTime(), engine.getTotalMines());
+		session.setTimeLeft(saved.getTimeLeft());
+		session.setFlagsLeft(engine.getFlagsLeft());
+
+		Board.startGame = true;
+		Board.firstClick = engine.areMinesPlaced();
+		superMineFlag = engine.getSuperMine() >= 0;
+		round_tries = saved.getTries();
+		board = new Board(engine, saved.restoreRecorder());
+		if (engine.areMinesPlaced()) {
+			minesFile(engine);
+		}
+		showBoard();
+	}
+
+	/**
+	 * Replaces the displayed board with the current one, below the menu and
+	 * header bars, and starts its countdown.
+	 */
+	private void showBoard() {
 		vBox.getChildren().clear();
-		Board.tiles = new Tile[Board.gameWidth][Board.gameHeight];
-		vBox.getChildren().addAll(menuBar(), headerBar(), new Board().createBoard());
+		Node boardView = board.createBoard();
+		vBox.getChildren().addAll(menuBar(), headerBar(), boardView);
 		scene.getWindow().sizeToScene();
 	}
 
@@ -159,17 +240,22 @@ public class Minesweeper extends Application {
 			Label superMineLabel = new Label("Super-Mine:");
 			TextField superMineTextField = new TextField();
 
+			Label sizeLabel = new Label("Width x Height (optional):");
+			TextField widthTextField = new TextField();
+			TextField heightTextField = new TextField();
+			HBox sizeBox = new HBox(10, widthTextField, heightTextField);
+
 			Button saveButton = new Button("Save");
 
 			// Create a vertical layout for the create popup window
 			VBox createLayout = new VBox(10);
 			createLayout.getChildren().addAll(nameLabel, nameTextField, difficultyLabel, difficultyTextField,
 					minesLabel, minesTextField, timeLabel, timeTextField, superMineLabel, superMineTextField,
-					saveButton);
+					sizeLabel, sizeBox, saveButton);
 			createLayout.setAlignment(Pos.CENTER);
 
 			// Create a new scene and set it to the create popup window
-			Scene createScene = new Scene(createLayout, 300, 350);
+			Scene createScene = new Scene(createLayout, 300, 420);
 			createStage.setScene(createScene);
 			createStage.setResizable(false);
 			createStage.show();
@@ -181,20 +267,16 @@ public class Minesweeper extends Application {
 				String mines = minesTextField.getText();
 				String time = timeTextField.getText();
 				String superMine = superMineTextField.getText();
+				String width = widthTextField.getText().trim();
+				String height = heightTextField.getText().trim();
 
-				// Code to save the description file
+				// Code to save the description file, with the board size only if one was given
 				String newScenario = String.format("%s\n%s\n%s\n%s", difficulty, mines, time, superMine);
-				File scenarioFile = new File("./src/medialab/SCENARIO-" + name + ".txt");
-				if (scenarioFile.exists()) {
-					scenarioFile.delete();
-				}
-				try (BufferedWriter writer = new BufferedWriter(
-						new FileWriter("./src/medialab/SCENARIO-" + name + ".txt", true))) {
-					writer.write(newScenario);
-					writer.close();
-				} catch (IOException e) {
-					e.printStackTrace();
+				if (!width.isEmpty() || !height.isEmpty()) {
+					newScenario += String.format("\n%s\n%s", width, height);
 				}
+				byte[] scenarioContent = newScenario.getBytes(StandardCharsets.UTF_8);
+				persistence.write(Paths.get("./src/medialab/SCENARIO-" + name + ".txt"), () -> scenarioContent);
 				createStage.close();
 			});
 		});
@@ -211,15 +293,8 @@ public class Minesweeper extends Application {
 			ComboBox<String> loadComboBox = new ComboBox<>();
 			Button loadButton = new Button("Load");
 
-			// Retrieve saved game names and add them to the combo box
-			File directory = new File("./src/medialab/");
-			File[] files = directory.listFiles();
-			for (File file : files) {
-				if (file.isFile() && file.getName().endsWith(".txt")) {
-					String fileName = file.getName().replaceFirst("[.][^.]+$", "");
-					loadComboBox.getItems().add(fileName);
-				}
-			}
+			// Show the saved game names, which the registry keeps up to date
+			loadComboBox.setItems(scenarios.getNames());
 
 			// Create a vertical layout for the load popup window
 			VBox loadLayout = new VBox(10);
@@ -235,161 +310,140 @@ public class Minesweeper extends Application {
 			// Load the corresponding description file when the load button is clicked
 			loadButton.setOnAction(loadEvent -> {
 				selectedGame = loadComboBox.getSelectionModel().getSelectedItem();
-				try {
-					check = new GameDescription(selectedGame);
-				} catch (FileNotFoundException | InvalidDescriptionException | InvalidValueException e) {
+				String loadedGame = selectedGame;
+				// Start stays disabled until the description is read
+				setLoadingScenario(true);
+				persistence.submit(() -> scenarios.get(loadedGame), description -> {
+					check = description;
+					setLoadingScenario(false);
+				}, e -> {
 					e.printStackTrace();
-				}
+					setLoadingScenario(false);
+					errorDisplay(e.getMessage());
+				});
 
 				loadStage.close();
 			});
 		});
 
-		MenuItem startMenuItem = new MenuItem("Start");
+		startMenuItem = new MenuItem("Start");
+		startMenuItem.setDisable(check == null || loadingScenario);
 		startMenuItem.setOnAction(event -> {
 			Board.difficulty = check.getDifficultyLevel();
-			timer = check.getMaxTime();
+			scenarioID = check.getScenarioID();
 			superMine = check.hasSuperMine();
 			Board.totalMines = check.getMines();
-			mineCount = Board.totalMines;
-			round_time = timer;
-
-			if (Board.difficulty == 1) {
-				Board.gameWidth = 9;
-				Board.gameHeight = 9;
-			} else {
-				Board.gameWidth = 16;
-				Board.gameHeight = 16;
-			}
+			Board.gameWidth = check.getWidth();
+			Board.gameHeight = check.getHeight();
 
 			if(Board.startGame) {
 				time.stop();
 			}
+			session = new GameSession(check.getMaxTime(), check.getMines());
 			resetVariables();
 		});
 
+		// Continue the game that was in progress when the application was closed
+		resumeMenuItem = new MenuItem("Resume");
+		resumeMenuItem.setDisable(Board.startGame || !savedGame);
+		resumeMenuItem.setOnAction(event -> resumeGame());
+
 		MenuItem exitMenuItem = new MenuItem("Exit");
 		exitMenuItem.setOnAction(event -> {
-			deleteMinesFile();
+			shutdown();
 			System.exit(0);
 		});
 
-		applicationMenu.getItems().addAll(createMenuItem, loadMenuItem, startMenuItem, new SeparatorMenuItem(),
-				exitMenuItem);
+		// Draw the next started board on a single canvas instead of one button per tile
+		CheckMenuItem canvasMenuItem = new CheckMenuItem("Canvas board");
+		canvasMenuItem.setSelected(Board.canvasView);
+		canvasMenuItem.setOnAction(event -> Board.canvasView = canvasMenuItem.isSelected());
+
+		// Place the mines of the next started board so that no guess is ever needed
+		CheckMenuItem noGuessMenuItem = new CheckMenuItem("No-guess boards");
+		noGuessMenuItem.setSelected(Board.noGuess);
+		noGuessMenuItem.setOnAction(event -> Board.noGuess = noGuessMenuItem.isSelected());
+
+		applicationMenu.getItems().addAll(createMenuItem, loadMenuItem, startMenuItem, resumeMenuItem, canvasMenuItem,
+				noGuessMenuItem, new SeparatorMenuItem(), exitMenuItem);
 
 		Menu detailsMenu = new Menu("Details");
 
 		MenuItem roundsMenuItem = new MenuItem("Rounds");
 		roundsMenuItem.setOnAction(event -> {
-			// Code to display the details popup window for the last 5 completed games
-			Stage roundsStage = new Stage();
-			roundsStage.setTitle("Recent games stats");
-
-			// Create the UI elements for the rounds popup window
-			Label roundsLabel = new Label("Select a recent game to display:");
-			ComboBox<String> roundsComboBox = new ComboBox<>();
-			Button roundsButton = new Button("Display");
-
-			// Retrieve the 5 most recent saved game names and add them to the combo box
-			File directory = new File("./src/recentgames/");
-			File[] files = directory.listFiles();
-			int fileCount = files != null ? files.length : 0;
-			if (fileCount > 0) {
-				// sort in descending order
-				Arrays.stream(files)
-						.sorted(Comparator.comparing(File::getName).reversed())
-						.limit(5)
-						.map(file -> file.getName().replaceFirst("[.][^.]+$", ""))
-						.forEach(fileName -> roundsComboBox.getItems().add(fileName));
-			}
-
-			// Create a vertical layout for the load popup window
-			VBox roundsLayout = new VBox(10);
-			roundsLayout.getChildren().addAll(roundsLabel, roundsComboBox, roundsButton);
-			roundsLayout.setAlignment(Pos.CENTER);
-
-			// Create a new scene and set it to the load popup window
-			Scene roundsScene = new Scene(roundsLayout, 400, 300);
-			roundsStage.setScene(roundsScene);
-			roundsStage.setResizable(false);
-			roundsStage.show();
-
-			// Load the corresponding description file when the load button is clicked
-			roundsButton.setOnAction(roundsEvent -> {
-
-				selectedGame = roundsComboBox.getSelectionModel().getSelectedItem();
-				try {
-					round = new RoundsStats(selectedGame);
-				} catch (FileNotFoundException e) {
-					e.printStackTrace();
-				}
-
-				int minesTotal = round.getMinesTotal();
-				int NoTries = round.getTries();
-				int Time = round.getTime();
-				int winner = round.getWinner();
-				String winner_str = (winner == 0) ? "Computer" : "Player";
-
-				// Display the create popup window and save the corresponding
-				// description file
-				Stage createStage = new Stage();
-				createStage.setTitle(selectedGame);
-
-				// Create the UI elements for the create popup window
-				Label minesTotalLabel = new Label("Number of Mines: " + minesTotal);
-				Label NoTriesLabel = new Label("Number of Tries: " + NoTries);
-				Label TimeLabel = new Label("Time in seconds: " + Time);
-				Label winnerLabel = new Label("Winner: " + winner_str);
-
-				// Create a vertical layout for the create popup window
-				VBox createLayout = new VBox(10);
-				createLayout.getChildren().addAll(minesTotalLabel, NoTriesLabel, TimeLabel, winnerLabel);
-				createLayout.setAlignment(Pos.CENTER);
-
-				// Create a new scene and set it to the create popup window
-				Scene createScene = new Scene(createLayout, 300, 350);
-				createStage.setScene(createScene);
-				createStage.show();
-				roundsStage.close();
-			});
-
+			// Retrieve the 5 most recent rounds, newest first, and the statistics on the writer thread,
+			// which is the only one touching the journal and its statistics
+			String shownScenario = scenarioID;
+			persistence.submit(() -> new RecentRounds(roundsJournal().lastRounds(5), statsTexts(shownScenario)),
+					this::showRounds, e -> {
+						e.printStackTrace();
+						showRounds(new RecentRounds(new ArrayList<>(), new ArrayList<>()));
+					});
 		});
 
 		MenuItem solutionMenuItem = new MenuItem("Solution");
 		solutionMenuItem.setOnAction(event -> {
 			if (Board.firstClick){
-				Board.revealAllMines();
+				board.revealAllMines();
 				Board.startGame = false;
 				round_winner = 0;
 				roundFile();
 			}
 		});
 
-		detailsMenu.getItems().addAll(roundsMenuItem, solutionMenuItem);
+		MenuItem hintMenuItem = new MenuItem("Hint");
+		hintMenuItem.setOnAction(event -> {
+			// Tell the player a cell that is logically safe, or the least risky one
+			if (Board.startGame && Board.firstClick) {
+				BoardEngine engine = board.getEngine();
+				Solver.Analysis analysis = new Solver(engine).analyze();
+				int[] safeCells = analysis.getSafeCells();
+				String hint;
+				if (safeCells.length > 0) {
+					hint = String.format("Safe: row %d, column %d%n%d safe cells, %d certain mines",
+							engine.getY(safeCells[0]) + 1, engine.getX(safeCells[0]) + 1,
+							safeCells.length, analysis.getMines().length);
+				} else {
+					int guess = analysis.getBestGuess();
+					hint = String.format("No safe cell. Best guess: row %d, column %d (%.0f%% mine)",
+							engine.getY(guess) + 1, engine.getX(guess) + 1, analysis.getProbability(guess) * 100);
+				}
+				Stage hintStage = new Stage();
+				VBox hintLayout = new VBox(10, new Label(hint));
+				hintLayout.setAlignment(Pos.CENTER);
+				hintStage.setScene(new Scene(hintLayout, 360, 80));
+				hintStage.show();
+			}
+		});
+
+		detailsMenu.getItems().addAll(roundsMenuItem, solutionMenuItem, hintMenuItem);
 		menuBar.getMenus().addAll(applicationMenu, detailsMenu);
 		return menuBar;
 	}
 
 	/**
 	 * Creates and configures the header bar for the Minesweeper application, which
-	 * displays the remaining time, total mines, and flags left.
+	 * displays the remaining time, total mines, and flags left. The labels are
+	 * bound to the properties of the current GameSession, so they follow its
+	 * counters without being rebuilt.
 	 *
 	 * @return the configured header bar for the Minesweeper application
 	 */
 	public HBox headerBar() {
 		// Labels Bar
-		labelWidth = ((Board.gameWidth * Tile.width) - Tile.width) / 3;
+		labelWidth = ((int) board.getViewWidth() - Tile.width) / 3;
 		infoBox = new HBox();
 
-		// updateFlagCounter();
-		flagLabel = new Label("Flags Left:" + Board.totalMines);
+		flagLabel = new Label();
+		flagLabel.textProperty().bind(session.flagsLeftProperty().asString("Flags Left:%d"));
 		flagLabel.setMinWidth(labelWidth);
 		flagLabel.setMaxWidth(labelWidth);
 		flagLabel.setMinHeight(Tile.height);
 		flagLabel.setMaxHeight(Tile.height);
 		flagLabel.setAlignment(Pos.CENTER_RIGHT);
 
-		Label mineLabel = new Label("Total Mines: " + mineCount);
+		Label mineLabel = new Label();
+		mineLabel.textProperty().bind(session.totalMinesProperty().asString("Total Mines: %d"));
 		mineLabel.setMinWidth(labelWidth);
 		mineLabel.setMaxWidth(labelWidth);
 		mineLabel.setMinHeight(Tile.height);
@@ -397,7 +451,8 @@ public class Minesweeper extends Application {
 
 		mineLabel.setAlignment(Pos.CENTER);
 
-		timeLabel = new Label("Time Left: " + timer);
+		timeLabel = new Label();
+		timeLabel.textProperty().bind(session.timeLeftProperty().asString("Time Left: %d"));
 		timeLabel.setMinWidth(labelWidth);
 		timeLabel.setMaxWidth(labelWidth);
 		timeLabel.setMinHeight(Tile.height);
@@ -410,22 +465,6 @@ public class Minesweeper extends Application {
 		return infoBox;
 	}
 
-	/**
-	 * Updates the flag counter displayed in the Minesweeper game. This method
-	 * removes the existing flag counter label and adds an updated one 
-	 * with the current number of flags left.
-	 */
-	public static void updateFlagCounter() {
-		Minesweeper.infoBox.getChildren().remove(Minesweeper.flagLabel);
-		flagLabel = new Label("Flags Left:" + Board.totalMines);
-		flagLabel.setMinWidth(labelWidth);
-		flagLabel.setMaxWidth(labelWidth);
-		flagLabel.setMinHeight(Tile.height);
-		flagLabel.setMaxHeight(Tile.height);
-		flagLabel.setAlignment(Pos.CENTER_RIGHT);
-		Minesweeper.infoBox.getChildren().add(Minesweeper.flagLabel);
-	}
-
 	/**
 	 * Sets up and starts a countdown timer in the Minesweeper game. 
 	 * The timer counts down every second and displays the time left. 
@@ -443,9 +482,8 @@ public class Minesweeper extends Application {
 		KeyFrame frame = new KeyFrame(Duration.seconds(1), new EventHandler<ActionEvent>() {
 			// @Override
 			public void handle(ActionEvent event) {
-				timer--;
-				timeLabel.setText("Time Left: " + timer);
-				if (timer == 0) {
+				session.setTimeLeft(session.getTimeLeft() - 1);
+				if (session.getTimeLeft() == 0) {
 					time.stop();
 					Alert alert = new Alert(Alert.AlertType.INFORMATION);
 					alert.setHeaderText("Time's up! You lost!");
@@ -454,6 +492,9 @@ public class Minesweeper extends Application {
 					Board.startGame = false;
 					roundFile();
 					System.out.println("You Lost!");
+				} else if (Board.startGame && Board.firstClick && session.getTimeLeft() % AUTOSAVE_SECONDS == 0) {
+					autosave();
+					setSavedGame(true);
 				}
 			}
 		});
@@ -464,64 +505,280 @@ public class Minesweeper extends Application {
 	}
 
 	/**
-	 * Creates a round stats file containing the game statistics.
+	 * Displays the details popup window for the last completed games, with the
+	 * statistics of every difficulty level and of the loaded scenario.
+	 *
+	 * @param recent the most recent rounds and the statistics text
+	 */
+	private void showRounds(RecentRounds recent) {
+		List<RoundsStats> recentRounds = recent.rounds;
+		Stage roundsStage = new Stage();
+		roundsStage.setTitle("Recent games stats");
+
+		// Create the UI elements for the rounds popup window
+		Label roundsLabel = new Label("Select a recent game to display:");
+		ComboBox<String> roundsComboBox = new ComboBox<>();
+		Button roundsButton = new Button("Display");
+
+		// Add the names of the recent rounds to the combo box
+		for (RoundsStats recentRound : recentRounds) {
+			roundsComboBox.getItems().add(recentRound.getName());
+		}
+
+		// Create a vertical layout for the load popup window
+		VBox roundsLayout = new VBox(10);
+		roundsLayout.getChildren().addAll(roundsLabel, roundsComboBox, roundsButton);
+		for (String stats : recent.stats) {
+			roundsLayout.getChildren().add(new Label(stats));
+		}
+		roundsLayout.setAlignment(Pos.CENTER);
+
+		// Create a new scene and set it to the load popup window
+		Scene roundsScene = new Scene(roundsLayout, 460, 400);
+		roundsStage.setScene(roundsScene);
+		roundsStage.setResizable(false);
+		roundsStage.show();
+
+		// Load the corresponding description file when the load button is clicked
+		roundsButton.setOnAction(roundsEvent -> {
+
+			int selectedIndex = roundsComboBox.getSelectionModel().getSelectedIndex();
+			if (selectedIndex < 0) {
+				return;
+			}
+			selectedGame = roundsComboBox.getItems().get(selectedIndex);
+			round = recentRounds.get(selectedIndex);
+
+			int minesTotal = round.getMinesTotal();
+			int NoTries = round.getTries();
+			int Time = round.getTime();
+			int winner = round.getWinner();
+			String winner_str = (winner == 0) ? "Computer" : "Player";
+
+			// Display the create popup window and save the corresponding
+			// description file
+			Stage createStage = new Stage();
+			createStage.setTitle(selectedGame);
+
+			// Create the UI elements for the create popup window
+			Label minesTotalLabel = new Label("Number of Mines: " + minesTotal);
+			Label NoTriesLabel = new Label("Number of Tries: " + NoTries);
+			Label TimeLabel = new Label("Time in seconds: " + Time);
+			Label winnerLabel = new Label("Winner: " + winner_str);
+
+			// Create a vertical layout for the create popup window
+			VBox createLayout = new VBox(10);
+			createLayout.getChildren().addAll(minesTotalLabel, NoTriesLabel, TimeLabel, winnerLabel);
+			if (round.getStartCell() >= 0) {
+				createLayout.getChildren().add(new Label("Seed: " + round.getSeed()));
+			}
+			createLayout.setAlignment(Pos.CENTER);
+
+			// Create a new scene and set it to the create popup window
+			Scene createScene = new Scene(createLayout, 300, 350);
+			createStage.setScene(createScene);
+			createStage.show();
+			roundsStage.close();
+		});
+	}
+
+	/**
+	 * Appends the statistics of the round to the rounds journal.
 	 * Saves the total number of mines, the number of tries, the time used, and the
-	 * winner of the round.
+	 * winner of the round, followed by the seed, the dimensions and the start cell
+	 * the mines were placed around, so that the same board can be replayed, and
+	 * the difficulty and scenario the round was played with. The moves of the
+	 * round are saved to the replays folder.
 	 */
 	private static void roundFile() {
 		time.stop();
-		round_mines = mineCount;
+		round_mines = session.getTotalMines();
 		int time_used;
-		time_used = (timer == 0) ? round_time : (round_time - timer);
+		time_used = session.getMaxTime() - session.getTimeLeft();
+
+		// Code to save the game stats, followed by what is needed to replay the board
+		BoardEngine engine = board.getEngine();
+		long timestamp = System.currentTimeMillis();
+		RoundsStats newGame = new RoundsStats(timestamp, round_mines, round_tries, time_used,
+				round_winner, engine.getSeed(), engine.getWidth(), engine.getHeight(), engine.getStartCell(),
+				Board.difficulty, scenarioID);
+
+		// The journal and its statistics are only ever touched by the writer thread
+		persistence.submit(() -> {
+			roundsJournal().append(newGame);
+			roundsAggregate.add(newGame);
+			roundsAggregate.saveAsync();
+			return null;
+		}, null, e -> {
+			e.printStackTrace();
+			errorDisplay(e.getMessage());
+		});
+
+		persistence.delete(savedGameFile); // a finished game can not be resumed
+		setSavedGame(false);
+
+		// The moves of the round, named after its timestamp in the journal
+		if (board.getRecorder().getEventCount() > 0) {
+			byte[] recording = board.getRecorder().toByteArray();
+			persistence.write(replaysDirectory.resolve(timestamp + ".replay"), () -> recording);
+		}
+	}
 
-		// Code to save the game stats file
-		String newGame = String.format("%d\n%d\n%d\n%d", round_mines, round_tries, time_used, round_winner);
+	/**
+	 * Copies the state of the game in progress.
+	 *
+	 * @return the snapshot of the current game
+	 */
+	private static GameSnapshot snapshot() {
+		return GameSnapshot.capture(board.getEngine(), board.getRecorder(), Board.difficulty, scenarioID,
+				session.getMaxTime(), session.getTimeLeft(), round_tries);
+	}
 
-	    // Get the current date and time
-		LocalDateTime now = LocalDateTime.now();
-		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
-		String formattedDateTime = now.format(formatter);
+	/**
+	 * Saves the game in progress in the background. Only the copy of its state is
+	 * made on the JavaFX Application Thread; it is encoded and written by the
+	 * writer thread.
+	 */
+	private static void autosave() {
+		persistence.write(savedGameFile, snapshot()::toByteArray);
+	}
 
-		try (BufferedWriter writer = new BufferedWriter(
-				new FileWriter("./src/recentgames/Game-" + formattedDateTime + "-Stats.txt", true))) {
-			writer.write(newGame);
-			writer.close();
-		} catch (IOException e) {
-			e.printStackTrace();
+	/**
+	 * Saves the game in progress, if any, so that it can be resumed on the next
+	 * run, deletes the mines files and waits until every file operation requested
+	 * so far is done. Called when the application is closed.
+	 */
+	private static void shutdown() {
+		if (board != null && Board.startGame && Board.firstClick) {
+			autosave();
 		}
+		persistence.delete(minesFile.toPath());
+		persistence.delete(minesBinaryFile.toPath());
+		persistence.flush(PersistenceService.SHUTDOWN_TIMEOUT_MILLIS);
 	}
 
 	/**
-	 * Creates a mines.txt file containing each mine's (x,y) coordinates and wheter 
-	 * it is a super-mine (1) or not (0).
+	 * Opens the rounds journal and its statistics the first time they are needed. 
+	 * The first time the journal is created, the Game-*-Stats.txt files of older
+	 * versions are imported.
 	 *
-	 * @param row       the row index of the mine
-	 * @param column    the column index of the mine
-	 * @param supermine the supermine status (1 for supermine, 0 for regular mine)
+	 * @return the rounds journal
+	 * @throws IOException if the journal can not be opened
 	 */
-	public static void minesFile(int row, int column, int supermine) {
-		// Code to save the description file
-		String minesfile = String.format("%d, %d, %d\n", row, column, supermine);
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter("./src/mines/mines.txt", true))) {
-			writer.write(minesfile);
-			writer.close();
-		} catch (IOException e) {
-			e.printStackTrace();
+	private static RoundsJournal roundsJournal() throws IOException {
+		if (roundsJournal == null) {
+			RoundsJournal journal = RoundsJournal.open(roundsJournalFile);
+			roundsAggregate = RoundsAggregate.open(roundsAggregateFile, journal);
+			roundsJournal = journal;
 		}
+		return roundsJournal;
 	}
 
 	/**
-	 * Deletes the mines.txt file upon application shutdown or a new game starts.
+	 * Formats the statistics of every difficulty level and of the given scenario.
+	 * Called on the writer thread, after the journal has been opened.
+	 *
+	 * @param scenario the loaded scenario, empty if none
+	 * @return one line of text per group of rounds that has been played
 	 */
-	private static void deleteMinesFile() {
-		Runtime.getRuntime().addShutdownHook(new Thread() {
-			@Override
-			public void run() {
-				if (minesFile.exists()) {
-					minesFile.delete();
-				}
+	private static List<String> statsTexts(String scenario) {
+		List<String> texts = new ArrayList<>();
+		for (int level = 0; level <= 2; level++) {
+			RoundsAggregate.Summary summary = roundsAggregate.getDifficulty(level);
+			if (summary != null) {
+				texts.add(statsText(level == 0 ? "Older games" : "Difficulty " + level, summary));
 			}
-		});
+		}
+		RoundsAggregate.Summary summary = scenario.isEmpty() ? null : roundsAggregate.getScenario(scenario);
+		if (summary != null) {
+			texts.add(statsText(scenario, summary));
+		}
+		return texts;
+	}
+
+	/**
+	 * Formats the statistics of a group of rounds.
+	 *
+	 * @param title   the name of the group
+	 * @param summary the statistics of the group
+	 * @return the text of the statistics
+	 */
+	private static String statsText(String title, RoundsAggregate.Summary summary) {
+		return String.format("%s: %d games, %.0f%% won%n"
+				+ "Win time: mean %.1fs, median %ds, 90th %ds, tries per win %.1f",
+				title, summary.getRounds(), summary.getWinRate() * 100, summary.getMeanTime(),
+				summary.getTimePercentile(50), summary.getTimePercentile(90), summary.getTriesPerWin());
+	}
+
+	/**
+	 * The most recent rounds and the statistics text, read together on the writer thread.
+	 */
+	private static class RecentRounds {
+		final List<RoundsStats> rounds;
+		final List<String> stats;
+
+		/**
+		 * Constructs the rounds to display.
+		 *
+		 * @param rounds the most recent rounds, newest first
+		 * @param stats  one line of text per group of rounds
+		 */
+		RecentRounds(List<RoundsStats> rounds, List<String> stats) {
+			this.rounds = rounds;
+			this.stats = stats;
+		}
+	}
+
+	/**
+	 * Records whether a saved game can be resumed and updates the Resume menu item.
+	 *
+	 * @param exists whether savedGameFile holds a game
+	 */
+	private static void setSavedGame(boolean exists) {
+		savedGame = exists;
+		if (resumeMenuItem != null) {
+			resumeMenuItem.setDisable(Board.startGame || !savedGame);
+		}
+	}
+
+	/**
+	 * Records whether a scenario is being loaded and updates the Start menu item.
+	 *
+	 * @param loading whether a scenario is being loaded
+	 */
+	private void setLoadingScenario(boolean loading) {
+		loadingScenario = loading;
+		startMenuItem.setDisable(check == null || loadingScenario);
+	}
+
+	/**
+	 * Creates a mines.txt file containing each mine's (x,y) coordinates and wheter 
+	 * it is a super-mine (1) or not (0). The whole layout is written at once, 
+	 * off the JavaFX Application Thread. When the minesweeper.layout system property
+	 * is "binary" or "both", the layout is also (or only) written to mines.bin in
+	 * the compact BinaryMineLayout format. Both files are deleted on shutdown.
+	 *
+	 * @param engine the engine holding the mines placed on the first click
+	 */
+	public static void minesFile(BoardEngine engine) {
+		if (!layoutFormat.equals("binary")) {
+			MineLayoutWriter.writeAsync(engine, minesFile.toPath());
+		}
+		if (layoutFormat.equals("binary") || layoutFormat.equals("both")) {
+			byte[] layout = BinaryMineLayout.encode(engine);
+			persistence.write(minesBinaryFile.toPath(), () -> layout);
+		}
+	}
+
+	/**
+	 * Displays an error message to the user in an alert window.
+	 *
+	 * @param error_msg the error message to display, one error per line
+	 */
+	public static void errorDisplay(String error_msg) {
+		Alert alert = new Alert(Alert.AlertType.INFORMATION);
+		alert.setHeaderText("Error Detected! " + error_msg);
+		alert.show();
 	}
 
 	/**
@@ -0,0 +1,118 @@
+package minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * Describes the outcome of a single move applied to a {@link BoardEngine}.
+ *
+ * <p>
+ * A MoveResult lists the cells whose visible state changed during the move, so
+ * that a renderer only has to redraw those cells, together with the outcome of
+ * the move (nothing happened, the game continues, the game was lost or won).
+ * Each engine reuses one MoveResult instance, so its contents are only valid
+ * until the next move is applied to the same engine.
+ * </p>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public class MoveResult {
+    public static final int NONE = 0, CONTINUE = 1, LOST = 2, WON = 3;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int capacity;
+    private int[] changedCells;
+    private int changedCount;
+    private int outcome;
+    private int explodedCell;
+
+    /**
+     * Constructs an empty MoveResult able to hold the given number of changed cells.
+     * The list of changed cells starts small and grows with the largest move made,
+     * so a big board only pays for the cells its moves actually change.
+     *
+     * @param capacity The maximum number of cells a single move can change.
+     */
+    MoveResult(int capacity) {
+        this.capacity = capacity;
+        changedCells = new int[Math.min(capacity, INITIAL_CAPACITY)];
+        reset();
+    }
+
+    /**
+     * Clears the result before a new move is applied.
+     */
+    void reset() {
+        changedCount = 0;
+        outcome = NONE;
+        explodedCell = -1;
+    }
+
+    /**
+     * Records a cell whose visible state changed during the move.
+     *
+     * @param cell The flat index of the changed cell.
+     */
+    void addChangedCell(int cell) {
+        if (changedCount == changedCells.length) {
+            changedCells = Arrays.copyOf(changedCells, (int) Math.min(capacity, 2L * changedCells.length));
+        }
+        changedCells[changedCount++] = cell;
+    }
+
+    /**
+     * Sets the outcome of the move.
+     *
+     * @param outcome One of NONE, CONTINUE, LOST or WON.
+     */
+    void setOutcome(int outcome) {
+        this.outcome = outcome;
+    }
+
+    /**
+     * Records the mine that exploded during the move.
+     *
+     * @param cell The flat index of the exploded mine.
+     */
+    void setExplodedCell(int cell) {
+        explodedCell = cell;
+    }
+
+    /**
+     * Returns the outcome of the move.
+     *
+     * @return One of NONE, CONTINUE, LOST or WON.
+     */
+    public int getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Returns the number of cells whose visible state changed during the move.
+     *
+     * @return The number of changed cells.
+     */
+    public int getChangedCount() {
+        return changedCount;
+    }
+
+    /**
+     * Returns the flat index of the i-th changed cell.
+     *
+     * @param i The position of the cell in the list of changed cells.
+     * @return The flat index of the changed cell.
+     */
+    public int getChangedCell(int i) {
+        return changedCells[i];
+    }
+
+    /**
+     * Returns the mine that exploded during the move.
+     *
+     * @return The flat index of the exploded mine, or -1 if no mine exploded.
+     */
+    public int getExplodedCell() {
+        return explodedCell;
+    }
+}
@@ -0,0 +1,159 @@
+package minesweeper;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Finds boards that can be cleared from the first click without ever guessing.
+ *
+ * <p>
+ * A board is fully determined by its dimensions, its mines, the first click and
+ * the seed given to {@link MinePlacer}, so the generator searches for a seed
+ * rather than a layout. Candidate seeds are tried on all available cores; for
+ * each one the board is played by the {@link Solver}, which only reveals cells
+ * it has proven safe. The first seed whose board is cleared that way is used.
+ * If no such seed is found within the time budget, the generator falls back to
+ * the seed it was given, which is an ordinary random board. Since only the seed
+ * changes, rounds played on these boards are recorded and replayed like any other.
+ * </p>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public final class NoGuessGenerator {
+    public static final long DEFAULT_BUDGET_MILLIS = 40;
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static final long NO_DEADLINE = Long.MIN_VALUE;
+
+    private NoGuessGenerator() {
+    }
+
+    /**
+     * Creates the worker threads the first time a board is searched for.
+     */
+    private static class Holder {
+        static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(THREADS, new ThreadFactory() {
+            private final AtomicInteger created = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "no-guess-" + created.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Searches for the seed of a board that can be cleared without guessing.
+     *
+     * @param width        The number of columns of the board.
+     * @param height       The number of rows of the board.
+     * @param mines        The total number of mines of the board.
+     * @param startCell    The flat index of the player's first click.
+     * @param seed         The seed the candidates are derived from, and the fallback seed.
+     * @param budgetMillis The time allowed for the search, in milliseconds.
+     * @return A seed whose board needs no guess, or the given seed if none was found in time.
+     */
+    public static long findSeed(int width, int height, int mines, int startCell, long seed, long budgetMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        AtomicBoolean stopped = new AtomicBoolean();
+        AtomicReference<Long> found = new AtomicReference<>(); // null until a worker finds a seed
+        CountDownLatch finished = new CountDownLatch(THREADS);
+        SplittableRandom candidates = new SplittableRandom(seed);
+        for (int i = 0; i < THREADS; i++) {
+            SplittableRandom random = candidates.split();
+            Holder.EXECUTOR.execute(() -> {
+                try {
+                    while (found.get() == null && !stopped.get() && System.nanoTime() - deadline < 0) {
+                        long candidate = random.nextLong();
+                        if (isNoGuess(width, height, mines, startCell, startCell, candidate, deadline)) {
+                            found.compareAndSet(null, candidate); // the first seed found is kept
+                        }
+                    }
+                } finally {
+                    finished.countDown();
+                }
+            });
+        }
+        try {
+            finished.await(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        stopped.set(true); // stop the workers that are still searching
+        Long noGuessSeed = found.get();
+        return noGuessSeed == null ? seed : noGuessSeed;
+    }
+
+    /**
+     * Returns whether the board of the given seed can be cleared from the first
+     * click by revealing only the cells the solver proves safe.
+     *
+     * @param width     The number of columns of the board.
+     * @param height    The number of rows of the board.
+     * @param mines     The total number of mines of the board.
+     * @param startCell The flat index of the player's first click.
+     * @param seed      The seed the mines are placed with.
+     * @return true if the board needs no guess.
+     */
+    public static boolean isNoGuess(int width, int height, int mines, int startCell, long seed) {
+        return isNoGuess(width, height, mines, startCell, startCell, seed, NO_DEADLINE);
+    }
+
+    /**
+     * Returns whether the board whose mines were placed around one cell can be
+     * cleared without guessing when the player first clicks another cell.
+     *
+     * @param width     The number of columns of the board.
+     * @param height    The number of rows of the board.
+     * @param mines     The total number of mines of the board.
+     * @param startCell The flat index of the cell the mines were placed around.
+     * @param clickCell The flat index of the player's first click, which must hold no mine.
+     * @param seed      The seed the mines are placed with.
+     * @return true if the board needs no guess.
+     */
+    static boolean isNoGuess(int width, int height, int mines, int startCell, int clickCell, long seed) {
+        return isNoGuess(width, height, mines, startCell, clickCell, seed, NO_DEADLINE);
+    }
+
+    /**
+     * Returns whether the board of the given seed can be cleared without guessing,
+     * giving up once the deadline has passed.
+     *
+     * @param width     The number of columns of the board.
+     * @param height    The number of rows of the board.
+     * @param mines     The total number of mines of the board.
+     * @param startCell The flat index of the cell the mines were placed around.
+     * @param clickCell The flat index of the player's first click.
+     * @param seed      The seed the mines are placed with.
+     * @param deadline  The System.nanoTime() after which the board is given up on, or NO_DEADLINE.
+     * @return true if the board needs no guess, false if it does or the deadline passed.
+     */
+    private static boolean isNoGuess(int width, int height, int mines, int startCell, int clickCell, long seed,
+            long deadline) {
+        BoardEngine engine = new BoardEngine(width, height, mines);
+        engine.start(clickCell % width, clickCell / width, false, seed, startCell);
+        Solver solver = new Solver(engine);
+        while (engine.getHiddenSafeCells() > 0) {
+            if (deadline != NO_DEADLINE && System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            int[] safeCells = solver.analyze().getSafeCells();
+            if (safeCells.length == 0) {
+                return false;
+            }
+            for (int cell : safeCells) {
+                engine.reveal(cell);
+            }
+        }
+        return true;
+    }
+}
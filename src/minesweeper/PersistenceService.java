@@ -0,0 +1,244 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javafx.application.Platform;
+
+/**
+ * Does all the file input and output of the game on a single background thread,
+ * so that the JavaFX Application Thread never waits on the disk.
+ *
+ * <p>
+ * A single writer thread runs every operation in the order it was requested,
+ * so files are never written by two threads at once. Writes and deletions of the
+ * same file are coalesced: while one is still queued, a newer one replaces it
+ * instead of being queued as well, and only the latest content is written. Each
+ * file is written to a temporary file and renamed over the target by
+ * writeAtomically, which the journal and the binary layout also use, so readers
+ * see either the old or the new content. Other tasks, such as appending a round
+ * to the journal or reading a saved game, report their result or their error
+ * through Platform.runLater, on the JavaFX Application Thread.
+ * </p>
+ *
+ * <p>
+ * The queue is flushed when the application exits: a shutdown hook waits for the
+ * operations requested so far, up to SHUTDOWN_TIMEOUT_MILLIS.
+ * </p>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public final class PersistenceService {
+    public static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+    // Marks a pending deletion in pendingFiles
+    private static final Supplier<byte[]> DELETE = () -> null;
+
+    private final ExecutorService writer;
+    private final Executor callbacks;
+    private final Map<Path, Supplier<byte[]>> pendingFiles = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Creates the service used by the game the first time a file is accessed.
+     */
+    private static class Holder {
+        static final PersistenceService SHARED = new PersistenceService(Platform::runLater);
+    }
+
+    /**
+     * Constructs a service with its own writer thread.
+     *
+     * @param callbacks Runs the completion callbacks, Platform::runLater for the game.
+     */
+    PersistenceService(Executor callbacks) {
+        this.callbacks = callbacks;
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "persistence");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(SHUTDOWN_TIMEOUT_MILLIS), "persistence-flush"));
+    }
+
+    /**
+     * Returns the service used by the game.
+     *
+     * @return The shared PersistenceService.
+     */
+    public static PersistenceService shared() {
+        return Holder.SHARED;
+    }
+
+    /**
+     * Writes a file on the writer thread. If a write or deletion of the same file
+     * is still queued, it is replaced by this one.
+     *
+     * @param file    The file to write.
+     * @param content Builds the bytes to write, on the writer thread.
+     */
+    public void write(Path file, Supplier<byte[]> content) {
+        enqueue(file, content);
+    }
+
+    /**
+     * Deletes a file on the writer thread, if it exists. If a write or deletion
+     * of the same file is still queued, it is replaced by this one.
+     *
+     * @param file The file to delete.
+     */
+    public void delete(Path file) {
+        enqueue(file, DELETE);
+    }
+
+    /**
+     * Runs a task on the writer thread and reports its outcome on the JavaFX
+     * Application Thread.
+     *
+     * @param <T>       The type of the result of the task.
+     * @param task      The task to run, after the operations requested before it.
+     * @param onDone    Receives the result of the task, or null to ignore it.
+     * @param onFailure Receives the exception thrown by the task, or null to print it.
+     */
+    public <T> void submit(Callable<T> task, Consumer<? super T> onDone, Consumer<? super Exception> onFailure) {
+        writer.execute(() -> {
+            T result;
+            try {
+                result = task.call();
+            } catch (Exception e) {
+                if (onFailure != null) {
+                    report(() -> onFailure.accept(e));
+                } else {
+                    e.printStackTrace();
+                }
+                return;
+            }
+            if (onDone != null) {
+                report(() -> onDone.accept(result));
+            }
+        });
+    }
+
+    /**
+     * Waits until the operations requested so far are done, including the writes
+     * requested by tasks that were running meanwhile.
+     *
+     * @param timeoutMillis The longest time to wait, in milliseconds.
+     * @return true if every operation was done in time.
+     */
+    public boolean flush(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            do {
+                writer.submit(() -> { }).get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } while (!pendingFiles.isEmpty());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of writes and deletions that replaced a queued one.
+     * @return the number of coalesced operations
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Queues the latest operation on a file, unless one is already queued.
+     */
+    private void enqueue(Path file, Supplier<byte[]> content) {
+        if (pendingFiles.put(file, content) != null) {
+            coalesced.increment();
+            return;
+        }
+        writer.execute(() -> {
+            Supplier<byte[]> latest = pendingFiles.remove(file);
+            try {
+                if (latest == DELETE) {
+                    Files.deleteIfExists(file);
+                } else {
+                    writeAtomically(file, latest.get());
+                }
+            } catch (IOException | RuntimeException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Hands a callback to the callbacks executor. Once the JavaFX toolkit has
+     * exited, as it has when the last operations are requested on shutdown,
+     * Platform.runLater refuses it and the callback is dropped, since there is
+     * no window left to update. A callback that throws is only printed, so it
+     * never stops the writer thread, even when callbacks run on that thread.
+     *
+     * @param callback The callback to run.
+     */
+    private void report(Runnable callback) {
+        try {
+            callbacks.execute(() -> {
+                try {
+                    callback.run();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            });
+        } catch (IllegalStateException e) {
+            // the JavaFX toolkit has exited
+        }
+    }
+
+    /**
+     * Writes the content to a temporary file next to the target and renames it
+     * over the target.
+     *
+     * @param file    The file to write.
+     * @param content The bytes to write.
+     * @throws IOException if the file can not be written
+     */
+    static void writeAtomically(Path file, byte[] content) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
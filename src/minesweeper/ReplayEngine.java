@@ -0,0 +1,300 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Rebuilds the board of a recorded round at any point of the round.
+ *
+ * <p>
+ * The recording of {@link GameRecorder} is decoded once and every event is
+ * applied to a {@link BoardEngine}. Along the way a copy of the engine is kept
+ * every snapshot interval, chosen so that the snapshots take about four bytes per
+ * event. The state after any number of events is then a copy of the closest
+ * earlier snapshot with the remaining events applied again, so no more than one
+ * interval of events is ever replayed. Replays need no JavaFX and can be run in
+ * bulk from the command line.
+ * </p>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public final class ReplayEngine {
+    private static final int MIN_SNAPSHOT_INTERVAL = 64;
+
+    private final int width, height, mines;
+    private long seed;
+    private int startCell = -1;
+    private boolean withSuperMine;
+    private int eventCount;
+    private long[] ticks = new long[64];
+    private byte[] actions = new byte[64];
+    private int[] cells = new int[64];
+    private final int snapshotInterval;
+    private final List<BoardEngine> snapshots = new ArrayList<>();
+    private final BoardEngine finalState;
+    private int outcome = MoveResult.NONE;
+
+    /**
+     * Decodes a recording and replays it to the end.
+     *
+     * @param recording The bytes written by a GameRecorder.
+     * @throws IllegalArgumentException if the bytes are not a valid recording.
+     */
+    public ReplayEngine(byte[] recording) {
+        Reader in = new Reader(recording);
+        if (in.readLong(4) != GameRecorder.MAGIC || in.readByte() != GameRecorder.VERSION) {
+            throw new IllegalArgumentException("Not a recording of version " + GameRecorder.VERSION);
+        }
+        width = (int) in.readVarint();
+        height = (int) in.readVarint();
+        mines = (int) in.readVarint();
+        long tick = 0;
+        while (in.hasMore()) {
+            tick += in.readVarint();
+            long packed = in.readVarint();
+            int action = (int) (packed & GameRecorder.ACTION_MASK);
+            if (action == GameRecorder.START) {
+                if (startCell >= 0) {
+                    throw new IllegalArgumentException("The first click is recorded twice");
+                }
+                seed = in.readLong(8);
+                startCell = (int) in.readVarint();
+                withSuperMine = in.readByte() != 0;
+            } // flags may be placed before the first click
+            add(tick, action, (int) (packed >>> GameRecorder.ACTION_BITS));
+        }
+
+        BoardEngine engine = new BoardEngine(width, height, mines);
+        snapshotInterval = Math.max(MIN_SNAPSHOT_INTERVAL, engine.getCellCount() / 4);
+        for (int event = 0; event < eventCount; event++) {
+            if (event % snapshotInterval == 0) {
+                snapshots.add(new BoardEngine(engine));
+            }
+            outcome = apply(engine, event);
+        }
+        if (eventCount % snapshotInterval == 0) {
+            snapshots.add(new BoardEngine(engine));
+        }
+        finalState = engine;
+    }
+
+    /**
+     * Reads a recording from a file and replays it.
+     *
+     * @param file The file holding the recording.
+     * @return The replay of the recording.
+     * @throws IOException if the file can not be read or is not a recording.
+     */
+    public static ReplayEngine read(Path file) throws IOException {
+        try {
+            return new ReplayEngine(Files.readAllBytes(file));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Invalid recording " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the board after the given number of events.
+     *
+     * @param events The number of events applied, between 0 and getEventCount().
+     * @return A new engine holding the state of the board at that point.
+     */
+    public BoardEngine stateAt(int events) {
+        if (events < 0 || events > eventCount) {
+            throw new IndexOutOfBoundsException("No event " + events + " in " + eventCount + " events");
+        }
+        int snapshot = events / snapshotInterval;
+        BoardEngine engine = new BoardEngine(snapshots.get(snapshot));
+        for (int event = snapshot * snapshotInterval; event < events; event++) {
+            apply(engine, event);
+        }
+        return engine;
+    }
+
+    /**
+     * Applies an event to an engine.
+     *
+     * @return The outcome of the move.
+     */
+    private int apply(BoardEngine engine, int event) {
+        int cell = cells[event];
+        switch (actions[event]) {
+            case GameRecorder.START:
+                return engine.start(engine.getX(cell), engine.getY(cell), withSuperMine, seed, startCell).getOutcome();
+            case GameRecorder.REVEAL:
+                return engine.reveal(cell).getOutcome();
+            case GameRecorder.FLAG:
+                return engine.toggleFlag(cell).getOutcome();
+            case GameRecorder.CHORD:
+                return engine.chord(cell).getOutcome();
+            case GameRecorder.SUPER_MINE:
+                return engine.revealSuperMine().getOutcome();
+            default:
+                throw new IllegalArgumentException("Unknown action " + actions[event] + " at event " + event);
+        }
+    }
+
+    /**
+     * Appends a decoded event.
+     */
+    private void add(long tick, int action, int cell) {
+        if (cell < 0 || cell >= width * height) {
+            throw new IllegalArgumentException("Cell " + cell + " is outside the board at event " + eventCount);
+        }
+        if (eventCount == cells.length) {
+            ticks = Arrays.copyOf(ticks, eventCount * 2);
+            actions = Arrays.copyOf(actions, eventCount * 2);
+            cells = Arrays.copyOf(cells, eventCount * 2);
+        }
+        ticks[eventCount] = tick;
+        actions[eventCount] = (byte) action;
+        cells[eventCount] = cell;
+        eventCount++;
+    }
+
+    /**
+     * Returns the number of events of the recording.
+     * @return the number of events
+     */
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Returns the time of an event.
+     * @param event the index of the event
+     * @return the milliseconds from the start of the recording to the event
+     */
+    public long getTick(int event) {
+        return ticks[event];
+    }
+
+    /**
+     * Returns the kind of an event.
+     * @param event the index of the event
+     * @return START, REVEAL, FLAG, CHORD or SUPER_MINE
+     */
+    public int getAction(int event) {
+        return actions[event];
+    }
+
+    /**
+     * Returns the cell of an event.
+     * @param event the index of the event
+     * @return the flat index of the cell the move was made on
+     */
+    public int getCell(int event) {
+        return cells[event];
+    }
+
+    /**
+     * Returns the number of reveals and chords the player made, as counted by round_tries.
+     * @return the number of START, REVEAL and CHORD events
+     */
+    public int getTries() {
+        int tries = 0;
+        for (int event = 0; event < eventCount; event++) {
+            if (actions[event] == GameRecorder.START || actions[event] == GameRecorder.REVEAL
+                    || actions[event] == GameRecorder.CHORD) {
+                tries++;
+            }
+        }
+        return tries;
+    }
+
+    /**
+     * Returns the outcome of the last move of the round.
+     * @return MoveResult.WON or LOST if the round was finished, otherwise CONTINUE or NONE
+     */
+    public int getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Returns the board at the end of the recording.
+     * @return a new engine holding the final state of the board
+     */
+    public BoardEngine getFinalState() {
+        return new BoardEngine(finalState);
+    }
+
+    /**
+     * Replays every recording of a directory and prints its outcome, tries and
+     * duration, followed by the number of events replayed per second.
+     *
+     * @param args the directory of the recordings, ./src/recentgames/replays by default
+     * @throws IOException if the directory can not be read
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = Paths.get(args.length > 0 ? args[0] : "./src/recentgames/replays");
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        long started = System.nanoTime(), events = 0;
+        String[] outcomes = { "unfinished", "unfinished", "lost", "won" };
+        for (Path file : files) {
+            try {
+                ReplayEngine replay = read(file);
+                events += replay.getEventCount();
+                int last = replay.getEventCount() - 1;
+                System.out.printf("%s: %dx%d, %s, %d tries, %d ms%n", file.getFileName(), replay.width, replay.height,
+                        outcomes[replay.getOutcome()], replay.getTries(), last < 0 ? 0 : replay.getTick(last));
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("%d recordings, %d events, %.0f events/s%n", files.size(), events, events / seconds);
+    }
+
+    /**
+     * Reads the numbers of a recording.
+     */
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        boolean hasMore() {
+            return position < bytes.length;
+        }
+
+        int readByte() {
+            return bytes[position++] & 0xFF;
+        }
+
+        long readLong(int length) {
+            long value = 0;
+            for (int i = 0; i < length; i++) {
+                value = (value << 8) | readByte();
+            }
+            return value;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                if (shift > 63) {
+                    throw new IllegalArgumentException("Malformed varint at byte " + position);
+                }
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+    }
+}
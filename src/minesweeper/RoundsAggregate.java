@@ -0,0 +1,302 @@
+package minesweeper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps running statistics over every round of the {@link RoundsJournal}, per
+ * difficulty level and per scenario.
+ *
+ * <p>
+ * Each group holds the number of rounds and wins, the total tries of the won
+ * rounds and a histogram of their completion times with one bucket per second.
+ * Adding a round updates a few counters of two groups, and the win rate, the
+ * mean and percentile completion times and the tries per win are computed from
+ * those counters alone, so the statistics never read individual round records,
+ * however many rounds have been played.
+ * </p>
+ *
+ * <p>
+ * The statistics are saved next to the journal, together with the number of
+ * rounds they cover. When the file is missing, or covers fewer rounds than the
+ * journal holds, the missing rounds are read back from the journal on open.
+ * </p>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public class RoundsAggregate {
+    static final int MAGIC = 0x4D535241, VERSION = 2;
+
+    private final Path file;
+    private final Map<String, Summary> summaries = new TreeMap<>();
+    private long rounds; // number of journal rounds the statistics cover
+
+    /**
+     * The running statistics of one group of rounds.
+     */
+    public static class Summary {
+        private long rounds, wins, winTries, winTime;
+        private int[] winTimes = new int[64]; // won rounds per completion time in seconds
+
+        /**
+         * Adds a finished round to the statistics.
+         *
+         * @param round The statistics of the round.
+         */
+        void add(RoundsStats round) {
+            rounds++;
+            if (round.getWinner() != 1) {
+                return;
+            }
+            int time = Math.max(0, round.getTime());
+            wins++;
+            winTries += round.getTries();
+            winTime += time;
+            if (time >= winTimes.length) {
+                winTimes = Arrays.copyOf(winTimes, Math.max(time + 1, winTimes.length * 2));
+            }
+            winTimes[time]++;
+        }
+
+        /**
+         * Returns the number of rounds played.
+         * @return the number of rounds
+         */
+        public long getRounds() {
+            return rounds;
+        }
+
+        /**
+         * Returns the number of rounds the player won.
+         * @return the number of wins
+         */
+        public long getWins() {
+            return wins;
+        }
+
+        /**
+         * Returns the share of the rounds the player won.
+         * @return the win rate between 0 and 1, 0 if no round was played
+         */
+        public double getWinRate() {
+            return rounds == 0 ? 0 : (double) wins / rounds;
+        }
+
+        /**
+         * Returns the mean time the player needed to win a round.
+         * @return the mean completion time in seconds, 0 if no round was won
+         */
+        public double getMeanTime() {
+            return wins == 0 ? 0 : (double) winTime / wins;
+        }
+
+        /**
+         * Returns the time within which the given share of the won rounds were completed.
+         *
+         * @param percentile The share of the won rounds, between 0 and 100.
+         * @return the completion time in seconds, 0 if no round was won
+         */
+        public int getTimePercentile(double percentile) {
+            long rank = Math.max(1, (long) Math.ceil(wins * percentile / 100));
+            long seen = 0;
+            for (int time = 0; time < winTimes.length; time++) {
+                seen += winTimes[time];
+                if (seen >= rank) {
+                    return time;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Returns the mean number of tries of the won rounds.
+         * @return the tries per win, 0 if no round was won
+         */
+        public double getTriesPerWin() {
+            return wins == 0 ? 0 : (double) winTries / wins;
+        }
+    }
+
+    /**
+     * Constructs empty statistics saved to the given file.
+     *
+     * @param file The file the statistics are saved to.
+     */
+    private RoundsAggregate(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Opens the statistics saved in the given file and brings them up to date
+     * with the journal, rebuilding them from the journal if the file is missing
+     * or can not be read.
+     *
+     * @param file    The file the statistics are saved to.
+     * @param journal The journal holding the rounds.
+     * @return The statistics over every round of the journal.
+     * @throws IOException if the journal can not be read
+     */
+    public static RoundsAggregate open(Path file, RoundsJournal journal) throws IOException {
+        RoundsAggregate aggregate = new RoundsAggregate(file);
+        if (Files.exists(file)) {
+            try (InputStream input = Files.newInputStream(file)) {
+                aggregate.read(new DataInputStream(input));
+            } catch (IOException e) {
+                System.out.println("Rebuilding the round statistics: " + e);
+                aggregate.summaries.clear();
+                aggregate.rounds = 0;
+            }
+        }
+        if (aggregate.rounds > journal.size()) { // the journal was replaced
+            aggregate.summaries.clear();
+            aggregate.rounds = 0;
+        }
+        if (aggregate.rounds < journal.size()) {
+            journal.forEach(aggregate.rounds, aggregate::add);
+            aggregate.saveAsync();
+        }
+        return aggregate;
+    }
+
+    /**
+     * Adds a finished round to the statistics of its difficulty level and scenario.
+     *
+     * @param round The statistics of the round.
+     */
+    public synchronized void add(RoundsStats round) {
+        rounds++;
+        summaries.computeIfAbsent(difficultyKey(round.getDifficulty()), key -> new Summary()).add(round);
+        if (!round.getScenario().isEmpty()) {
+            summaries.computeIfAbsent(scenarioKey(round.getScenario()), key -> new Summary()).add(round);
+        }
+    }
+
+    /**
+     * Returns the statistics of the rounds played at the given difficulty level.
+     *
+     * @param difficulty The difficulty level, 0 for rounds whose level was not recorded.
+     * @return The statistics of the difficulty level, or null if no such round was played.
+     */
+    public synchronized Summary getDifficulty(int difficulty) {
+        return summaries.get(difficultyKey(difficulty));
+    }
+
+    /**
+     * Returns the statistics of the rounds played with the given scenario.
+     *
+     * @param scenarioID The scenario ID.
+     * @return The statistics of the scenario, or null if no such round was played.
+     */
+    public synchronized Summary getScenario(String scenarioID) {
+        return summaries.get(scenarioKey(scenarioID));
+    }
+
+    /**
+     * Returns the number of rounds the statistics cover.
+     *
+     * @return The number of rounds.
+     */
+    public synchronized long getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Returns the key of the statistics of a difficulty level.
+     *
+     * @param difficulty The difficulty level.
+     * @return The key of the difficulty level.
+     */
+    private static String difficultyKey(int difficulty) {
+        return "D" + difficulty;
+    }
+
+    /**
+     * Returns the key of the statistics of a scenario.
+     *
+     * @param scenarioID The scenario ID.
+     * @return The key of the scenario.
+     */
+    private static String scenarioKey(String scenarioID) {
+        return "S" + RoundsJournal.storedScenario(scenarioID); // as read back from the journal
+    }
+
+    /**
+     * Saves the statistics on the background writer thread. The statistics are
+     * encoded by the writer thread when it writes the file, under the lock of
+     * the statistics, so saves requested while one is queued are encoded once.
+     */
+    public void saveAsync() {
+        PersistenceService.shared().write(file, this::encode);
+    }
+
+    /**
+     * Encodes the statistics in the format of the statistics file.
+     *
+     * @return The bytes of the statistics file.
+     */
+    synchronized byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(MAGIC);
+            output.writeShort(VERSION);
+            output.writeLong(rounds);
+            output.writeInt(summaries.size());
+            for (Map.Entry<String, Summary> entry : summaries.entrySet()) {
+                Summary summary = entry.getValue();
+                int length = summary.winTimes.length;
+                while (length > 0 && summary.winTimes[length - 1] == 0) {
+                    length--;
+                }
+                output.writeUTF(entry.getKey());
+                output.writeLong(summary.rounds);
+                output.writeLong(summary.wins);
+                output.writeLong(summary.winTries);
+                output.writeLong(summary.winTime);
+                output.writeInt(length);
+                for (int time = 0; time < length; time++) {
+                    output.writeInt(summary.winTimes[time]);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // not thrown by an in-memory stream
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads the statistics from the given statistics file.
+     *
+     * @param input The statistics file.
+     * @throws IOException if the file can not be read or is not a statistics file
+     */
+    private void read(DataInputStream input) throws IOException {
+        if (input.readInt() != MAGIC || input.readShort() != VERSION) {
+            throw new IOException("Not a round statistics file: " + file);
+        }
+        rounds = input.readLong();
+        int count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            String key = input.readUTF();
+            Summary summary = new Summary();
+            summary.rounds = input.readLong();
+            summary.wins = input.readLong();
+            summary.winTries = input.readLong();
+            summary.winTime = input.readLong();
+            int length = input.readInt();
+            summary.winTimes = new int[Math.max(length, 64)];
+            for (int time = 0; time < length; time++) {
+                summary.winTimes[time] = input.readInt();
+            }
+            summaries.put(key, summary);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package minesweeper;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Stores the statistics of every finished round in a single append-only file.
+ *
+ * <p>
+ * The journal starts with a small header and then holds one fixed-size record
+ * of RECORD_SIZE bytes per round, oldest first, so the n-th most recent round
+ * is found by its offset alone. The most recent TAIL_SIZE rounds are also kept
+ * in memory, so the Rounds dialog shows the last rounds without touching the
+ * disk, and reading the last N rounds never costs more than one read of N
+ * records. A record cut short by a crash is dropped when the journal is opened.
+ * </p>
+ *
+ * <p>
+ * The first time the journal is opened it imports the Game-*-Stats.txt files
+ * the game used to write, one per round, from the directory of the journal.
+ * </p>
+ *
+ * <pre>
+ * header: magic "MSRJ" (4), version (2), record size (2), reserved (8)
+ * record: timestamp (8), seed (8), mines (4), tries (4), time (4), start cell (4),
+ *         width (4), height (4), winner (1), difficulty (1), reserved (2),
+ *         scenario ID, UTF-8, zero padded (20)
+ * </pre>
+ *
+ * <p>
+ * A scenario ID longer than 20 bytes is stored cut at the last whole character
+ * that fits; see {@link #storedScenario(String)}.
+ * </p>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public class RoundsJournal {
+    static final int MAGIC = 0x4D53524A, VERSION = 1, HEADER_SIZE = 16, RECORD_SIZE = 64;
+    static final int SCENARIO_SIZE = 20, TAIL_SIZE = 32, CHUNK_SIZE = 4096;
+
+    private final Path file;
+    private final ArrayDeque<RoundsStats> tail = new ArrayDeque<>(TAIL_SIZE);
+    private long rounds;
+
+    /**
+     * Opens the journal, checks its header and loads the most recent rounds.
+     *
+     * @param file The journal file.
+     * @throws IOException if the journal can not be read
+     */
+    private RoundsJournal(Path file) throws IOException {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(channel, header, 0);
+            if (header.getInt(0) != MAGIC || header.getShort(4) != VERSION || header.getShort(6) != RECORD_SIZE) {
+                throw new IOException("Not a rounds journal: " + file);
+            }
+            rounds = (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+            long end = HEADER_SIZE + rounds * RECORD_SIZE;
+            if (channel.size() != end) { // drop a record cut short by a crash
+                channel.truncate(end);
+            }
+            for (RoundsStats round : read(channel, Math.min(rounds, TAIL_SIZE))) {
+                tail.addLast(round);
+            }
+        }
+    }
+
+    /**
+     * Opens the journal stored in the given file, creating it and importing the
+     * existing Game-*-Stats.txt files of the same directory if it does not exist.
+     *
+     * @param file The journal file.
+     * @return The opened journal.
+     * @throws IOException if the journal can not be read or created
+     */
+    public static RoundsJournal open(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            migrate(file);
+        }
+        return new RoundsJournal(file);
+    }
+
+    /**
+     * Creates the journal from the Game-*-Stats.txt files found next to it.
+     * The journal is written to a temporary file and renamed into place, so an
+     * interrupted migration is simply run again the next time.
+     *
+     * @param file The journal file to create.
+     * @throws IOException if the journal can not be written
+     */
+    static void migrate(Path file) throws IOException {
+        File[] files = file.toAbsolutePath().getParent().toFile()
+                .listFiles((directory, name) -> name.startsWith("Game-") && name.endsWith("-Stats.txt"));
+        if (files == null) {
+            files = new File[0];
+        }
+        Arrays.sort(files, Comparator.comparing(File::getName)); // oldest first
+
+        List<RoundsStats> imported = new ArrayList<>();
+        for (File statsFile : files) {
+            try {
+                imported.add(new RoundsStats(statsFile));
+            } catch (FileNotFoundException | RuntimeException e) {
+                System.out.println("Skipping unreadable stats file " + statsFile.getName() + ": " + e);
+            }
+        }
+
+        ByteBuffer content = ByteBuffer.allocate(HEADER_SIZE + imported.size() * RECORD_SIZE);
+        content.putInt(MAGIC).putShort((short) VERSION).putShort((short) RECORD_SIZE).putLong(0);
+        for (RoundsStats round : imported) {
+            encode(round, content);
+        }
+        PersistenceService.writeAtomically(file, content.array());
+    }
+
+    /**
+     * Appends a finished round to the end of the journal.
+     *
+     * @param round The statistics of the round.
+     * @throws IOException if the round can not be written
+     */
+    public synchronized void append(RoundsStats round) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        encode(round, record);
+        record.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        }
+        rounds++;
+        if (tail.size() == TAIL_SIZE) {
+            tail.removeFirst();
+        }
+        tail.addLast(round);
+    }
+
+    /**
+     * Returns the number of rounds stored in the journal.
+     *
+     * @return The number of rounds.
+     */
+    public synchronized long size() {
+        return rounds;
+    }
+
+    /**
+     * Returns the most recent rounds, newest first.
+     *
+     * @param count The maximum number of rounds to return.
+     * @return Up to count rounds, newest first.
+     * @throws IOException if the rounds can not be read
+     */
+    public synchronized List<RoundsStats> lastRounds(int count) throws IOException {
+        List<RoundsStats> last;
+        if (count <= tail.size() || tail.size() == rounds) {
+            last = new ArrayList<>(Math.min(count, tail.size()));
+            Iterator<RoundsStats> newestFirst = tail.descendingIterator();
+            while (newestFirst.hasNext() && last.size() < count) {
+                last.add(newestFirst.next());
+            }
+            return last;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            last = read(channel, Math.min(count, rounds));
+        }
+        Collections.reverse(last);
+        return last;
+    }
+
+    /**
+     * Passes every round from the given position to the end of the journal to the
+     * consumer, oldest first, reading the journal in large chunks.
+     *
+     * @param from     The position of the first round to read, 0 for the oldest.
+     * @param consumer The consumer of the rounds.
+     * @throws IOException if the rounds can not be read
+     */
+    public synchronized void forEach(long from, Consumer<RoundsStats> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer records = ByteBuffer.allocate(CHUNK_SIZE * RECORD_SIZE);
+            for (long position = from; position < rounds; position += CHUNK_SIZE) {
+                int count = (int) Math.min(CHUNK_SIZE, rounds - position);
+                records.clear().limit(count * RECORD_SIZE);
+                readFully(channel, records, HEADER_SIZE + position * RECORD_SIZE);
+                for (int i = 0; i < count; i++) {
+                    consumer.accept(decode(records, i * RECORD_SIZE));
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the given number of records from the end of the journal in a single read.
+     *
+     * @param channel The open journal.
+     * @param count   The number of records to read.
+     * @return The records, oldest first.
+     * @throws IOException if the records can not be read
+     */
+    private List<RoundsStats> read(FileChannel channel, long count) throws IOException {
+        ByteBuffer records = ByteBuffer.allocate((int) count * RECORD_SIZE);
+        readFully(channel, records, HEADER_SIZE + (rounds - count) * RECORD_SIZE);
+        List<RoundsStats> read = new ArrayList<>((int) count);
+        for (int i = 0; i < count; i++) {
+            read.add(decode(records, i * RECORD_SIZE));
+        }
+        return read;
+    }
+
+    /**
+     * Fills the buffer with the bytes of the channel starting at the given position.
+     *
+     * @param channel  The channel to read.
+     * @param buffer   The buffer to fill.
+     * @param position The position of the first byte to read.
+     * @throws IOException if the channel ends before the buffer is full
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of rounds journal");
+            }
+        }
+    }
+
+    /**
+     * Writes the record of a round at the current position of the buffer.
+     *
+     * @param round  The statistics of the round.
+     * @param buffer The buffer to write to.
+     */
+    static void encode(RoundsStats round, ByteBuffer buffer) {
+        buffer.putLong(round.getTimestamp()).putLong(round.getSeed());
+        buffer.putInt(round.getMinesTotal()).putInt(round.getTries()).putInt(round.getTime());
+        buffer.putInt(round.getStartCell()).putInt(round.getWidth()).putInt(round.getHeight());
+        buffer.put((byte) round.getWinner()).put((byte) round.getDifficulty()).putShort((short) 0);
+        byte[] scenario = Arrays.copyOf(storedScenario(round.getScenario()).getBytes(StandardCharsets.UTF_8),
+                SCENARIO_SIZE);
+        buffer.put(scenario);
+    }
+
+    /**
+     * Returns the scenario ID as it is stored in a record: the longest prefix
+     * whose UTF-8 encoding fits in SCENARIO_SIZE bytes, never splitting a character.
+     *
+     * @param scenarioID The scenario ID.
+     * @return The scenario ID read back from a record of a round played with it.
+     */
+    static String storedScenario(String scenarioID) {
+        int bytes = 0;
+        for (int i = 0; i < scenarioID.length(); ) {
+            int codePoint = scenarioID.codePointAt(i);
+            bytes += codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (bytes > SCENARIO_SIZE) {
+                return scenarioID.substring(0, i);
+            }
+            i += Character.charCount(codePoint);
+        }
+        return scenarioID;
+    }
+
+    /**
+     * Reads the record of a round at the given offset of the buffer.
+     *
+     * @param buffer The buffer holding the record.
+     * @param offset The offset of the record in the buffer.
+     * @return The statistics of the round.
+     */
+    static RoundsStats decode(ByteBuffer buffer, int offset) {
+        byte[] scenario = new byte[SCENARIO_SIZE];
+        buffer.get(offset + 44, scenario);
+        int length = 0;
+        while (length < SCENARIO_SIZE && scenario[length] != 0) {
+            length++;
+        }
+        return new RoundsStats(buffer.getLong(offset), buffer.getInt(offset + 16), buffer.getInt(offset + 20),
+                buffer.getInt(offset + 24), buffer.get(offset + 40), buffer.getLong(offset + 8),
+                buffer.getInt(offset + 32), buffer.getInt(offset + 36), buffer.getInt(offset + 28),
+                buffer.get(offset + 41), new String(scenario, 0, length, StandardCharsets.UTF_8));
+    }
+}
@@ -2,15 +2,22 @@ package minesweeper;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Scanner;
 
 /**
  * A class that represents the statistics of a single game round of the Minesweeper game.
- * It reads 4 values from a text file whose name is specified in the "gameID" parameter.
  * The values represent the total number of mines in the game,
  * the number of tries (left clicks) the player made during the game,
- * the duration of the game and who won the game, computer or player.
- * If the specified file is not found, a FileNotFoundException will be thrown.
+ * the duration of the game and who won the game, computer or player,
+ * together with the seed, the dimensions and the start cell of the board,
+ * which are enough to rebuild the exact board of the game.
+ * Rounds are stored in the {@link RoundsJournal}; the constructor that takes a file
+ * reads the text files the game used to write, one per round, and is used to
+ * migrate them.
  * 
  * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
  * @version 1.0
@@ -21,21 +28,71 @@ public class RoundsStats {
     private int NoTries; //Number of tries (left clicks) the player made during the game
     private int time; // Duration of the game 
     private int winner; // who won the game, computer or player
+    private long seed; // seed the mines were placed with
+    private int width, height; // dimensions of the board
+    private int startCell = -1; // flat index of the centre of the safe area, -1 if unknown
+    private long timestamp; // when the round ended, in milliseconds since the epoch
+    private int difficulty; // difficulty level of the scenario, 0 if unknown
+    private String scenario = ""; // scenario ID the round was played with, empty if unknown
+
+    static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+
+    /**
+     * Constructs a new RoundsStats object holding the given statistics.
+     * @param timestamp  when the round ended, in milliseconds since the epoch
+     * @param minesTotal the total number of mines in the game
+     * @param tries      the number of tries (left clicks) the player made
+     * @param time       the duration of the game in seconds
+     * @param winner     0 if the computer won, 1 if the player won
+     * @param seed       the seed the mines were placed with
+     * @param width      the number of columns of the board
+     * @param height     the number of rows of the board
+     * @param startCell  the flat index of the centre of the safe area, -1 if unknown
+     * @param difficulty the difficulty level of the scenario, 0 if unknown
+     * @param scenario   the scenario ID the round was played with, empty if unknown
+     */
+    public RoundsStats(long timestamp, int minesTotal, int tries, int time, int winner, long seed,
+            int width, int height, int startCell, int difficulty, String scenario) {
+        this.timestamp = timestamp;
+        this.minesTotal = minesTotal;
+        this.NoTries = tries;
+        this.time = time;
+        this.winner = winner;
+        this.seed = seed;
+        this.width = width;
+        this.height = height;
+        this.startCell = startCell;
+        this.difficulty = difficulty;
+        this.scenario = scenario;
+    }
 
     /**
-     * Constructs a new RoundsStats object by reading the game statistics from a file with the specified game ID.
-     * @param gameID the ID of the game file to read the statistics from
+     * Constructs a new RoundsStats object by reading the game statistics from a
+     * Game-yyyy-MM-dd_HH-mm-ss-Stats.txt file. The time the round ended is taken
+     * from the name of the file.
+     * @param file the game file to read the statistics from
      * @throws FileNotFoundException if the specified file is not found
      */
-    public RoundsStats(String gameID)
+    public RoundsStats(File file)
             throws FileNotFoundException {
-        File file = new File("./src/recentgames/" + gameID + ".txt");
+        String name = file.getName();
+        if (name.startsWith("Game-") && name.length() >= 24) {
+            LocalDateTime ended = LocalDateTime.parse(name.substring(5, 24), NAME_FORMAT);
+            timestamp = ended.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
         Scanner scanner = new Scanner(file);
         try {
             minesTotal = Integer.parseInt(scanner.nextLine());
             NoTries = Integer.parseInt(scanner.nextLine());
             time = Integer.parseInt(scanner.nextLine());
             winner = Integer.parseInt(scanner.nextLine());
+            // Stats files written before the seed was recorded stop here
+            if (scanner.hasNextLine()) {
+                seed = Long.parseLong(scanner.nextLine());
+                width = Integer.parseInt(scanner.nextLine());
+                height = Integer.parseInt(scanner.nextLine());
+                startCell = Integer.parseInt(scanner.nextLine());
+            }
         } finally {
             scanner.close();
         }
@@ -73,4 +130,71 @@ public class RoundsStats {
     public int getWinner() {
         return winner;
     }
+
+    /**
+     * Returns the seed the mines of the game were placed with.
+     * @return the seed of the game, 0 if it was not recorded
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the number of columns of the board.
+     * @return the width of the board, 0 if it was not recorded
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the number of rows of the board.
+     * @return the height of the board, 0 if it was not recorded
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the cell the mines were placed around, the centre of the safe area.
+     * It is the player's first click unless the board was generated ahead of
+     * time, in which case the first click was only somewhere in its opening.
+     * @return the flat index of the start cell, -1 if it was not recorded
+     */
+    public int getStartCell() {
+        return startCell;
+    }
+
+    /**
+     * Returns when the round ended.
+     * @return the end of the round in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the difficulty level of the scenario the round was played with.
+     * @return the difficulty level, 0 if it was not recorded
+     */
+    public int getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Returns the scenario the round was played with.
+     * @return the scenario ID, empty if it was not recorded
+     */
+    public String getScenario() {
+        return scenario;
+    }
+
+    /**
+     * Returns the name of the round, as the game used to name its stats file.
+     * @return the name of the round, Game-yyyy-MM-dd_HH-mm-ss-Stats
+     */
+    public String getName() {
+        LocalDateTime ended = LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault());
+        return "Game-" + ended.format(NAME_FORMAT) + "-Stats";
+    }
 }
\ No newline at end of file
@@ -0,0 +1,243 @@
+package minesweeper;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+/**
+ * Keeps track of the scenario description files of a directory and of their
+ * parsed descriptions.
+ *
+ * <p>
+ * The directory is listed once, on a background thread, which then watches it
+ * through a WatchService: scenarios created or deleted afterwards are added to
+ * or removed from the sorted list of names as they appear, so the Load dialog
+ * shows that list as it is instead of listing the directory each time.
+ * </p>
+ *
+ * <p>
+ * A scenario is parsed and validated the first time it is loaded, and the
+ * resulting GameDescription is cached together with the modification time of
+ * its file. Loading the scenario again returns the cached description until
+ * the file is changed.
+ * </p>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public class ScenarioRegistry {
+    private static final String EXTENSION = ".txt";
+
+    private final Path directory;
+    private final Executor uiExecutor;
+    private final ObservableList<String> names = FXCollections.observableArrayList();
+    private final Map<Path, Entry> cache = new ConcurrentHashMap<>();
+    private WatchService watcher;
+
+    /**
+     * A parsed description together with the modification time of its file.
+     */
+    private static class Entry {
+        final FileTime modified;
+        final GameDescription description;
+
+        /**
+         * Constructs a cache entry.
+         *
+         * @param modified    The modification time of the file when it was parsed.
+         * @param description The parsed description.
+         */
+        Entry(FileTime modified, GameDescription description) {
+            this.modified = modified;
+            this.description = description;
+        }
+    }
+
+    /**
+     * Constructs a registry of the scenarios of the given directory, whose list
+     * of names is updated on the JavaFX Application Thread.
+     *
+     * @param directory The directory holding the scenario description files.
+     */
+    public ScenarioRegistry(Path directory) {
+        this(directory, Platform::runLater);
+    }
+
+    /**
+     * Constructs a registry of the scenarios of the given directory.
+     *
+     * @param directory  The directory holding the scenario description files.
+     * @param uiExecutor The executor the list of names is updated on.
+     */
+    ScenarioRegistry(Path directory, Executor uiExecutor) {
+        this.directory = directory;
+        this.uiExecutor = uiExecutor;
+    }
+
+    /**
+     * Lists the directory and starts watching it on a background thread.
+     */
+    public void start() {
+        Thread thread = new Thread(this::watch, "scenario-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching the directory.
+     */
+    public void stop() {
+        try {
+            if (watcher != null) {
+                watcher.close();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Returns the sorted names of the scenarios of the directory. The list is
+     * kept up to date as scenarios are created and deleted, and must only be
+     * read on the thread the registry updates it on.
+     *
+     * @return The scenario IDs, in alphabetical order.
+     */
+    public ObservableList<String> getNames() {
+        return names;
+    }
+
+    /**
+     * Returns the description of a scenario, parsing its file only if it was not
+     * parsed before or has changed since.
+     *
+     * @param scenarioID The scenario ID.
+     * @return The description of the scenario.
+     * @throws FileNotFoundException if the description file is not found
+     * @throws InvalidDescriptionException if the file has an invalid format
+     * @throws InvalidValueException if any of the description values are invalid
+     */
+    public GameDescription get(String scenarioID)
+            throws FileNotFoundException, InvalidDescriptionException, InvalidValueException {
+        Path file = directory.resolve(scenarioID + EXTENSION);
+        FileTime modified;
+        try {
+            modified = Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            cache.remove(file);
+            throw new FileNotFoundException(file.toString());
+        }
+        Entry entry = cache.get(file);
+        if (entry != null && entry.modified.equals(modified)) {
+            return entry.description;
+        }
+        GameDescription description = new GameDescription(scenarioID, file.toFile());
+        cache.put(file, new Entry(modified, description));
+        return description;
+    }
+
+    /**
+     * Lists the directory once and then applies the changes reported by the
+     * WatchService until the registry is stopped.
+     */
+    private void watch() {
+        try {
+            Files.createDirectories(directory);
+            watcher = directory.getFileSystem().newWatchService();
+            // Register before listing, so no scenario created in between is missed
+            WatchKey key = directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+            rescan();
+            while (true) {
+                watcher.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        rescan();
+                        continue;
+                    }
+                    Path file = directory.resolve((Path) event.context());
+                    String name = scenarioID(file);
+                    if (name == null) {
+                        continue;
+                    }
+                    cache.remove(file);
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                        uiExecutor.execute(() -> insert(name));
+                    } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                        uiExecutor.execute(() -> names.remove(name));
+                    }
+                }
+                if (!key.reset()) {
+                    break;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // the registry was stopped
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Lists the directory and replaces the list of names with its scenarios.
+     *
+     * @throws IOException if the directory can not be listed
+     */
+    private void rescan() throws IOException {
+        List<String> listed = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                if (Files.isRegularFile(file)) {
+                    listed.add(scenarioID(file));
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // the directory was removed, there are no scenarios left
+        }
+        Collections.sort(listed);
+        cache.clear();
+        uiExecutor.execute(() -> names.setAll(listed));
+    }
+
+    /**
+     * Adds a scenario to the sorted list of names, unless it is already there.
+     *
+     * @param name The scenario ID.
+     */
+    private void insert(String name) {
+        int position = Collections.binarySearch(names, name);
+        if (position < 0) {
+            names.add(-position - 1, name);
+        }
+    }
+
+    /**
+     * Returns the scenario ID of a description file.
+     *
+     * @param file The description file.
+     * @return The name of the file without its extension, or null if it is not a description file.
+     */
+    private static String scenarioID(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(EXTENSION) ? name.substring(0, name.length() - EXTENSION.length()) : null;
+    }
+}
@@ -0,0 +1,397 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Validates scenario description files without any user interface.
+ *
+ * <p>
+ * A description holds four lines: the difficulty level, the total number of
+ * mines, the maximum time in seconds and whether the game has a super-mine.
+ * Two optional lines give the width and height of the board; without them the
+ * board is the default board of the level. The mines can also be given as a
+ * percentage of the cells, such as "15%". The allowed ranges depend on the size
+ * of the board and are computed by {@link GameLimits}.
+ * Validation checks every line and reports all the errors of the file, each
+ * with its line number, instead of stopping at the first one. How the errors
+ * are shown is left to the caller, so descriptions can be validated from any
+ * thread, and whole directories can be checked in parallel, either through
+ * {@link #validateDirectory(Path)} or from the command line:
+ * </p>
+ *
+ * <pre>
+ * java -cp bin minesweeper.ScenarioValidator [directory]
+ * </pre>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public final class ScenarioValidator {
+    static final String FORMAT_ERROR = "Invalid game description file format";
+
+    private ScenarioValidator() {
+    }
+
+    /**
+     * A single error found in a description.
+     */
+    public static final class Issue {
+        private final int line;
+        private final boolean formatError;
+        private final String message;
+
+        /**
+         * Constructs an error of the given line.
+         *
+         * @param line        The line number, starting from 1.
+         * @param formatError true if the file is malformed, false if a value is invalid.
+         * @param message     The description of the error.
+         */
+        Issue(int line, boolean formatError, String message) {
+            this.line = line;
+            this.formatError = formatError;
+            this.message = message;
+        }
+
+        /**
+         * Returns the line the error was found on.
+         * @return the line number, starting from 1
+         */
+        public int getLine() {
+            return line;
+        }
+
+        /**
+         * Returns whether the error is about the format of the file rather than one of its values.
+         * @return true if the file is malformed, false if a value is invalid
+         */
+        public boolean isFormatError() {
+            return formatError;
+        }
+
+        /**
+         * Returns the description of the error.
+         * @return the error message
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "line " + line + ": " + message;
+        }
+    }
+
+    /**
+     * The outcome of validating a description: its values and every error found.
+     */
+    public static final class Result {
+        private final List<Issue> issues;
+        private final int difficultyLevel, width, height, mines, maxTime, hasSuperMine;
+
+        /**
+         * Constructs the outcome of a validation.
+         *
+         * @param issues          The errors found, in line order.
+         * @param difficultyLevel The difficulty level read.
+         * @param width           The number of columns of the board.
+         * @param height          The number of rows of the board.
+         * @param mines           The total number of mines read.
+         * @param maxTime         The maximum time read.
+         * @param hasSuperMine    The super-mine value read.
+         */
+        Result(List<Issue> issues, int difficultyLevel, int width, int height, int mines, int maxTime,
+                int hasSuperMine) {
+            this.issues = Collections.unmodifiableList(issues);
+            this.difficultyLevel = difficultyLevel;
+            this.width = width;
+            this.height = height;
+            this.mines = mines;
+            this.maxTime = maxTime;
+            this.hasSuperMine = hasSuperMine;
+        }
+
+        /**
+         * Returns whether the description has no errors.
+         * @return true if the description is valid
+         */
+        public boolean isValid() {
+            return issues.isEmpty();
+        }
+
+        /**
+         * Returns every error found, in line order.
+         * @return the errors of the description, empty if it is valid
+         */
+        public List<Issue> getIssues() {
+            return issues;
+        }
+
+        /**
+         * Returns the difficulty level of the description.
+         * @return the difficulty level, 0 if it could not be read
+         */
+        public int getDifficultyLevel() {
+            return difficultyLevel;
+        }
+
+        /**
+         * Returns the number of columns of the board.
+         * @return the width of the board, 0 if it could not be read
+         */
+        public int getWidth() {
+            return width;
+        }
+
+        /**
+         * Returns the number of rows of the board.
+         * @return the height of the board, 0 if it could not be read
+         */
+        public int getHeight() {
+            return height;
+        }
+
+        /**
+         * Returns the total number of mines of the description.
+         * @return the total number of mines, 0 if it could not be read
+         */
+        public int getMines() {
+            return mines;
+        }
+
+        /**
+         * Returns the maximum time of the description.
+         * @return the maximum time in seconds, 0 if it could not be read
+         */
+        public int getMaxTime() {
+            return maxTime;
+        }
+
+        /**
+         * Returns the super-mine value of the description.
+         * @return 1 if the game has a super-mine, 0 otherwise
+         */
+        public int hasSuperMine() {
+            return hasSuperMine;
+        }
+    }
+
+    /**
+     * Validates the lines of a description.
+     *
+     * @param lines The lines of the description file.
+     * @return The values of the description and every error found.
+     */
+    public static Result validate(List<String> lines) {
+        List<Issue> issues = new ArrayList<>();
+        if (lines.size() < 4) {
+            issues.add(new Issue(lines.size() + 1, true, FORMAT_ERROR));
+        }
+
+        Integer difficultyLevel = parse(lines, 0, "Invalid difficulty level value", issues);
+        if (difficultyLevel != null && !GameLimits.isValidDifficulty(difficultyLevel)) {
+            issues.add(new Issue(1, false, "Invalid difficulty level value: " + difficultyLevel));
+            difficultyLevel = null;
+        }
+        int level = difficultyLevel == null ? 0 : difficultyLevel;
+
+        // The board is the default board of the level unless lines 5 and 6 give its width and height
+        int width = level == 0 ? 0 : GameLimits.defaultSide(level), height = width;
+        if (isPresent(lines, 4)) {
+            Integer declaredWidth = parseSide(lines, 4, "width", issues);
+            Integer declaredHeight = null;
+            if (!isPresent(lines, 5)) {
+                issues.add(new Issue(6, true, FORMAT_ERROR));
+            } else {
+                declaredHeight = parseSide(lines, 5, "height", issues);
+            }
+            width = declaredWidth == null || declaredHeight == null ? 0 : declaredWidth;
+            height = width == 0 ? 0 : declaredHeight;
+        }
+        // 0 if the level or the board is unknown, which skips the range checks
+        long cells = level == 0 ? 0 : (long) width * height;
+
+        Integer mines = parseMines(lines, cells, issues);
+        if (mines != null && cells > 0
+                && (mines < GameLimits.minMines(level, width, height)
+                        || mines > GameLimits.maxMines(level, width, height))) {
+            issues.add(new Issue(2, false, "Invalid total mines value: " + mines));
+        }
+
+        Integer maxTime = parse(lines, 2, "Invalid maximum time value", issues);
+        if (maxTime != null && cells > 0
+                && (maxTime < GameLimits.minTime(level, cells) || maxTime > GameLimits.maxTime(level, cells))) {
+            issues.add(new Issue(3, false, "Invalid maximum time value: " + maxTime));
+        }
+
+        Integer hasSuperMine = parse(lines, 3, "Invalid super-mine value", issues);
+        if (hasSuperMine != null && level != 0 && hasSuperMine == 1 && !GameLimits.allowsSuperMine(level)) {
+            issues.add(new Issue(4, false, "Super-mine not allowed in level " + level));
+        }
+
+        issues.sort((first, second) -> Integer.compare(first.getLine(), second.getLine()));
+        return new Result(issues, level, width, height, mines == null ? 0 : mines, maxTime == null ? 0 : maxTime,
+                hasSuperMine == null ? 0 : hasSuperMine);
+    }
+
+    /**
+     * Validates a description file.
+     *
+     * @param file The description file.
+     * @return The values of the description and every error found.
+     * @throws IOException if the file can not be read
+     */
+    public static Result validate(Path file) throws IOException {
+        return validate(Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Validates every description file of a directory, spreading the files over
+     * all available cores.
+     *
+     * @param directory The directory holding the description files.
+     * @return The outcome of every file, by file name.
+     * @throws IOException if the directory or one of its files can not be read
+     */
+    public static Map<String, Result> validateDirectory(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listed = Files.list(directory)) {
+            files = listed.filter(file -> file.getFileName().toString().endsWith(".txt"))
+                    .filter(Files::isRegularFile)
+                    .collect(Collectors.toList());
+        }
+        try {
+            return files.parallelStream().collect(Collectors.toMap(
+                    file -> file.getFileName().toString(),
+                    file -> {
+                        try {
+                            return validate(file);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    },
+                    (first, second) -> first,
+                    TreeMap::new));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Returns whether the description has a non-blank line at the given index.
+     *
+     * @param lines The lines of the description file.
+     * @param index The index of the line.
+     * @return true if the line exists and is not blank.
+     */
+    private static boolean isPresent(List<String> lines, int index) {
+        return index < lines.size() && !lines.get(index).isBlank();
+    }
+
+    /**
+     * Reads the width or height of the board, recording an error if it is not a valid side.
+     *
+     * @param lines  The lines of the description file.
+     * @param index  The index of the line.
+     * @param name   The name of the value, "width" or "height".
+     * @param issues The errors found so far.
+     * @return The side, or null if it is missing or invalid.
+     */
+    private static Integer parseSide(List<String> lines, int index, String name, List<Issue> issues) {
+        Integer side = parse(lines, index, "Invalid " + name + " value", issues);
+        if (side != null && !GameLimits.isValidSide(side)) {
+            issues.add(new Issue(index + 1, false, "Invalid " + name + " value: " + side));
+            return null;
+        }
+        return side;
+    }
+
+    /**
+     * Reads the total number of mines, given either as a count or as a percentage
+     * of the cells of the board, such as "15%".
+     *
+     * @param lines  The lines of the description file.
+     * @param cells  The number of cells of the board, 0 if unknown.
+     * @param issues The errors found so far.
+     * @return The number of mines, or null if it is missing, invalid or a percentage of an unknown board.
+     */
+    private static Integer parseMines(List<String> lines, long cells, List<Issue> issues) {
+        if (lines.size() < 2 || !lines.get(1).endsWith("%")) {
+            return parse(lines, 1, "Invalid total mines value", issues);
+        }
+        String density = lines.get(1);
+        double percent;
+        try {
+            percent = Double.parseDouble(density.substring(0, density.length() - 1));
+        } catch (NumberFormatException e) {
+            issues.add(new Issue(2, false, "Invalid total mines value"));
+            return null;
+        }
+        if (!(percent >= 0 && percent <= 100)) {
+            issues.add(new Issue(2, false, "Invalid total mines value: " + density));
+            return null;
+        }
+        return cells == 0 ? null : (int) Math.round(cells * percent / 100);
+    }
+
+    /**
+     * Reads the value of a line as an integer, recording an error if it is not one.
+     *
+     * @param lines   The lines of the description file.
+     * @param index   The index of the line.
+     * @param message The message of the error.
+     * @param issues  The errors found so far.
+     * @return The value of the line, or null if the line is missing or not an integer.
+     */
+    private static Integer parse(List<String> lines, int index, String message, List<Issue> issues) {
+        if (index >= lines.size()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(lines.get(index));
+        } catch (NumberFormatException e) {
+            issues.add(new Issue(index + 1, false, message));
+            return null;
+        }
+    }
+
+    /**
+     * Validates the description files of a directory and prints the errors of
+     * every invalid file. Exits with status 1 if any file is invalid.
+     *
+     * @param args the directory to validate, ./src/medialab by default
+     * @throws IOException if the directory can not be read
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = Paths.get(args.length > 0 ? args[0] : "./src/medialab");
+        long started = System.nanoTime();
+        Map<String, Result> results = validateDirectory(directory);
+        int invalid = 0;
+        for (Map.Entry<String, Result> entry : results.entrySet()) {
+            if (!entry.getValue().isValid()) {
+                invalid++;
+                for (Issue issue : entry.getValue().getIssues()) {
+                    System.out.println(entry.getKey() + ": " + issue);
+                }
+            }
+        }
+        System.out.printf("%d files, %d invalid, %d ms%n", results.size(), invalid,
+                (System.nanoTime() - started) / 1_000_000);
+        if (invalid > 0) {
+            System.exit(1);
+        }
+    }
+}
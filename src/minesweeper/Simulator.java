@@ -0,0 +1,233 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+
+/**
+ * Plays many games headlessly to measure how hard a board is.
+ *
+ * <p>
+ * Every game is played on its own {@link BoardEngine}, from a random first
+ * click, by a {@link Strategy} choosing which cells to reveal until the game is
+ * won or lost. The games are spread across all cores with a parallel stream, and
+ * game i always uses the same seeds, so a run can be repeated exactly. Every
+ * revealed cell counts as a click, like round_tries in the game; the timer and
+ * the super-mine are not simulated.
+ * </p>
+ *
+ * <pre>
+ * java minesweeper.Simulator [games] [strategy] [scenario | width height mines] [seed]
+ * </pre>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public final class Simulator {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Chooses the cells to reveal next.
+     */
+    public interface Strategy {
+        /**
+         * Returns the cells to reveal next, in order. Cells that are already
+         * revealed when their turn comes are skipped and not counted as clicks.
+         *
+         * @param engine The engine of the game, after the first click.
+         * @param random The random numbers of the game.
+         * @return At least one hidden cell.
+         */
+        int[] nextCells(BoardEngine engine, SplittableRandom random);
+    }
+
+    /**
+     * The strategies that can be chosen on the command line.
+     */
+    public enum Builtin implements Strategy {
+        /** Reveals a random hidden cell. */
+        RANDOM {
+            @Override
+            public int[] nextCells(BoardEngine engine, SplittableRandom random) {
+                return new int[] { randomHiddenCell(engine, random) };
+            }
+        },
+        /** Reveals every cell the solver proves safe, or a random hidden cell if there is none. */
+        SAFE {
+            @Override
+            public int[] nextCells(BoardEngine engine, SplittableRandom random) {
+                int[] safeCells = new Solver(engine).analyze().getSafeCells();
+                return safeCells.length > 0 ? safeCells : new int[] { randomHiddenCell(engine, random) };
+            }
+        },
+        /** Reveals every cell the solver proves safe, or the cell least likely to hold a mine. */
+        SOLVER {
+            @Override
+            public int[] nextCells(BoardEngine engine, SplittableRandom random) {
+                Solver.Analysis analysis = new Solver(engine).analyze();
+                int[] safeCells = analysis.getSafeCells();
+                return safeCells.length > 0 ? safeCells : new int[] { analysis.getBestGuess() };
+            }
+        };
+
+        /**
+         * Returns a hidden cell chosen uniformly at random.
+         */
+        private static int randomHiddenCell(BoardEngine engine, SplittableRandom random) {
+            int cell;
+            do {
+                cell = random.nextInt(engine.getCellCount());
+            } while (engine.getCellState(cell) == BoardEngine.REVEALED);
+            return cell;
+        }
+    }
+
+    /**
+     * The totals of a number of games.
+     */
+    public static final class Tally {
+        private long games, wins, clicks, winClicks;
+
+        /**
+         * Adds a finished game.
+         *
+         * @param won    Whether the game was won.
+         * @param clicks The number of cells the player revealed.
+         */
+        void add(boolean won, int clicks) {
+            games++;
+            this.clicks += clicks;
+            if (won) {
+                wins++;
+                winClicks += clicks;
+            }
+        }
+
+        /**
+         * Adds the games of another tally.
+         * @param other the tally to add
+         */
+        void merge(Tally other) {
+            games += other.games;
+            wins += other.wins;
+            clicks += other.clicks;
+            winClicks += other.winClicks;
+        }
+
+        /**
+         * Returns the number of games played.
+         * @return the number of games
+         */
+        public long getGames() {
+            return games;
+        }
+
+        /**
+         * Returns the share of games won.
+         * @return the win rate between 0 and 1
+         */
+        public double getWinRate() {
+            return games == 0 ? 0 : (double) wins / games;
+        }
+
+        /**
+         * Returns the mean number of clicks per game.
+         * @return the average clicks of all games
+         */
+        public double getMeanClicks() {
+            return games == 0 ? 0 : (double) clicks / games;
+        }
+
+        /**
+         * Returns the mean number of clicks of the games won.
+         * @return the average clicks of a win
+         */
+        public double getMeanWinClicks() {
+            return wins == 0 ? 0 : (double) winClicks / wins;
+        }
+    }
+
+    private Simulator() {
+    }
+
+    /**
+     * Plays a number of games in parallel.
+     *
+     * @param games    The number of games to play.
+     * @param width    The number of columns of the board.
+     * @param height   The number of rows of the board.
+     * @param mines    The total number of mines of the board.
+     * @param strategy The strategy choosing the cells to reveal.
+     * @param seed     The seed the games are derived from.
+     * @return The totals of the games.
+     */
+    public static Tally run(long games, int width, int height, int mines, Strategy strategy, long seed) {
+        return LongStream.range(0, games).parallel().collect(Tally::new,
+                (tally, game) -> play(tally, width, height, mines, strategy, seed + game * GOLDEN_GAMMA),
+                Tally::merge);
+    }
+
+    /**
+     * Plays one game and adds it to the tally.
+     */
+    private static void play(Tally tally, int width, int height, int mines, Strategy strategy, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        BoardEngine engine = new BoardEngine(width, height, mines);
+        int first = random.nextInt(engine.getCellCount());
+        int outcome = engine.start(engine.getX(first), engine.getY(first), false, random.nextLong()).getOutcome();
+        int clicks = 1;
+        while (outcome == MoveResult.CONTINUE) {
+            for (int cell : strategy.nextCells(engine, random)) {
+                if (engine.getCellState(cell) == BoardEngine.REVEALED) {
+                    continue;
+                }
+                clicks++;
+                outcome = engine.reveal(cell).getOutcome();
+                if (outcome != MoveResult.CONTINUE) {
+                    break;
+                }
+            }
+        }
+        tally.add(outcome == MoveResult.WON, clicks);
+    }
+
+    /**
+     * Plays the games described on the command line and prints the win rate, the
+     * clicks per game and the throughput.
+     *
+     * @param args the number of games (100000), the strategy (solver), a scenario
+     *             file or the width, height and mines (9 9 10), and the seed
+     * @throws IOException if the scenario file can not be read
+     */
+    public static void main(String[] args) throws IOException {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        Strategy strategy = Builtin.valueOf((args.length > 1 ? args[1] : "solver").toUpperCase());
+        int width = 9, height = 9, mines = 10, next = 2;
+        if (args.length == 3 || args.length == 4) {
+            ScenarioValidator.Result scenario = ScenarioValidator.validate(Paths.get(args[2]));
+            if (!scenario.isValid()) {
+                throw new IllegalArgumentException("Invalid scenario " + args[2] + ": " + scenario.getIssues());
+            }
+            width = scenario.getWidth();
+            height = scenario.getHeight();
+            mines = scenario.getMines();
+            next = 3;
+        } else if (args.length >= 5) {
+            width = Integer.parseInt(args[2]);
+            height = Integer.parseInt(args[3]);
+            mines = Integer.parseInt(args[4]);
+            next = 5;
+        }
+        long seed = args.length > next ? Long.parseLong(args[next]) : System.nanoTime();
+
+        long started = System.nanoTime();
+        Tally tally = run(games, width, height, mines, strategy, seed);
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("%d games of %dx%d with %d mines, %s strategy, seed %d%n", tally.getGames(), width, height,
+                mines, strategy, seed);
+        System.out.printf("win rate %.2f%%, clicks %.2f per game, %.2f per win%n", 100 * tally.getWinRate(),
+                tally.getMeanClicks(), tally.getMeanWinClicks());
+        System.out.printf("%.3f s, %.0f games/s%n", seconds, tally.getGames() / seconds);
+    }
+}
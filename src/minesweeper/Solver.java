@@ -0,0 +1,603 @@
+package minesweeper;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Works out what the player can know about a board from what is visible on it.
+ *
+ * <p>
+ * The solver only looks at what the player sees: the numbers of the revealed
+ * cells, the revealed mines and the total number of mines. Flags are ignored,
+ * since the player may have placed them wrongly. Every revealed number is a
+ * constraint on its hidden neighbours, and the solver proceeds in three steps:
+ * </p>
+ * <ol>
+ * <li>Single-cell rules: a number already satisfied by known mines makes its
+ * other neighbours safe, and a number needing all of its hidden neighbours
+ * makes them all mines.</li>
+ * <li>Subset rules: when the cells of one constraint are part of those of
+ * another, the difference holds the difference of their mines.</li>
+ * <li>Enumeration: the remaining frontier, the hidden cells next to a number,
+ * is split into independent groups, and every arrangement of mines of each
+ * group that satisfies its constraints is counted. The arrangements are
+ * weighted by the number of ways to place the remaining mines on the other
+ * hidden cells, which gives the exact probability of each cell holding a mine.</li>
+ * </ol>
+ * <p>
+ * Groups larger than MAX_ENUMERATED_CELLS are not enumerated; their cells get
+ * the average density of the cells that are not next to any number.
+ * </p>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public class Solver {
+    public static final int MAX_ENUMERATED_CELLS = 40;
+    private static final byte UNKNOWN = 0, SAFE = 1, MINE = 2;
+
+    private final BoardEngine engine;
+    private final int width, height, cellCount;
+    private byte[] known;
+    private List<Constraint> constraints;
+
+    /**
+     * A revealed number: the hidden cells around it hold exactly mines mines.
+     */
+    private static final class Constraint {
+        int[] cells;
+        int mines;
+
+        /**
+         * Constructs a constraint.
+         *
+         * @param cells The unknown cells of the constraint, in increasing order.
+         * @param mines The number of mines among them.
+         */
+        Constraint(int[] cells, int mines) {
+            this.cells = cells;
+            this.mines = mines;
+        }
+    }
+
+    /**
+     * The outcome of analysing a board.
+     */
+    public static final class Analysis {
+        private final int[] safeCells, mines;
+        private final double[] probabilities;
+
+        /**
+         * Constructs the outcome of an analysis.
+         *
+         * @param safeCells     The hidden cells known to be safe.
+         * @param mines         The hidden cells known to hold a mine.
+         * @param probabilities The chance of each cell holding a mine, -1 for revealed cells.
+         */
+        Analysis(int[] safeCells, int[] mines, double[] probabilities) {
+            this.safeCells = safeCells;
+            this.mines = mines;
+            this.probabilities = probabilities;
+        }
+
+        /**
+         * Returns the hidden cells that can not hold a mine.
+         * @return the flat indices of the safe cells, in increasing order
+         */
+        public int[] getSafeCells() {
+            return safeCells.clone();
+        }
+
+        /**
+         * Returns the hidden cells that must hold a mine.
+         * @return the flat indices of the certain mines, in increasing order
+         */
+        public int[] getMines() {
+            return mines.clone();
+        }
+
+        /**
+         * Returns the chance that a cell holds a mine.
+         *
+         * @param cell The flat index of the cell.
+         * @return A probability between 0 and 1, or -1 if the cell is revealed.
+         */
+        public double getProbability(int cell) {
+            return probabilities[cell];
+        }
+
+        /**
+         * Returns the hidden cell least likely to hold a mine.
+         * @return the flat index of the safest cell, or -1 if no cell is hidden
+         */
+        public int getBestGuess() {
+            int best = -1;
+            for (int cell = 0; cell < probabilities.length; cell++) {
+                if (probabilities[cell] >= 0 && (best < 0 || probabilities[cell] < probabilities[best])) {
+                    best = cell;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Constructs a solver for the board of the given engine.
+     *
+     * @param engine The engine whose visible state is analysed.
+     */
+    public Solver(BoardEngine engine) {
+        this.engine = engine;
+        this.width = engine.getWidth();
+        this.height = engine.getHeight();
+        this.cellCount = engine.getCellCount();
+    }
+
+    /**
+     * Analyses the current visible state of the board.
+     *
+     * @return The safe cells, the certain mines and the chance of each cell holding a mine.
+     */
+    public Analysis analyze() {
+        known = new byte[cellCount];
+        constraints = new ArrayList<>();
+        double[] probabilities = new double[cellCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (engine.getCellState(cell) == BoardEngine.REVEALED) {
+                known[cell] = engine.isMine(cell) ? MINE : SAFE;
+                probabilities[cell] = -1;
+            }
+        }
+        if (!engine.areMinesPlaced()) { // nothing is known before the first click
+            Arrays.fill(probabilities, (double) engine.getTotalMines() / cellCount);
+            return new Analysis(new int[0], new int[0], probabilities);
+        }
+
+        buildConstraints();
+        deduce();
+        enumerate(probabilities);
+
+        int safeCount = 0, mineCount = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (probabilities[cell] == 0) {
+                safeCount++;
+            } else if (probabilities[cell] == 1) {
+                mineCount++;
+            }
+        }
+        int[] safeCells = new int[safeCount], mines = new int[mineCount];
+        safeCount = 0;
+        mineCount = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (probabilities[cell] == 0) {
+                safeCells[safeCount++] = cell;
+            } else if (probabilities[cell] == 1) {
+                mines[mineCount++] = cell;
+            }
+        }
+        return new Analysis(safeCells, mines, probabilities);
+    }
+
+    /**
+     * Turns every revealed number next to a hidden cell into a constraint.
+     */
+    private void buildConstraints() {
+        int[] neighbours = new int[8];
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (known[cell] != SAFE || engine.getSurroundingMines(cell) == 0
+                    || engine.getCellState(cell) != BoardEngine.REVEALED) {
+                continue;
+            }
+            int count = 0, mines = engine.getSurroundingMines(cell);
+            int x = cell % width, y = cell / width;
+            for (int offsetY = -1; offsetY <= 1; offsetY++) {
+                for (int offsetX = -1; offsetX <= 1; offsetX++) {
+                    int newX = x + offsetX, newY = y + offsetY;
+                    if ((offsetX == 0 && offsetY == 0) || newX < 0 || newX >= width || newY < 0 || newY >= height) {
+                        continue;
+                    }
+                    int neighbour = newY * width + newX;
+                    if (known[neighbour] == MINE) {
+                        mines--;
+                    } else if (known[neighbour] == UNKNOWN) {
+                        neighbours[count++] = neighbour;
+                    }
+                }
+            }
+            if (count > 0) {
+                constraints.add(new Constraint(Arrays.copyOf(neighbours, count), mines));
+            }
+        }
+    }
+
+    /**
+     * Applies the single-cell and subset rules until they find nothing new.
+     */
+    private void deduce() {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Constraint constraint : constraints) {
+                if (constraint.mines == 0) {
+                    changed |= mark(constraint.cells, SAFE);
+                } else if (constraint.mines == constraint.cells.length) {
+                    changed |= mark(constraint.cells, MINE);
+                }
+            }
+            if (changed) {
+                simplify();
+                continue;
+            }
+            int size = constraints.size();
+            for (int i = 0; i < size && !changed; i++) {
+                Constraint small = constraints.get(i);
+                for (int j = 0; j < size; j++) {
+                    Constraint large = constraints.get(j);
+                    if (i == j || small.cells.length >= large.cells.length || !isSubset(small.cells, large.cells)) {
+                        continue;
+                    }
+                    int[] difference = difference(large.cells, small.cells);
+                    int mines = large.mines - small.mines;
+                    if (mines == 0) {
+                        changed |= mark(difference, SAFE);
+                    } else if (mines == difference.length) {
+                        changed |= mark(difference, MINE);
+                    }
+                }
+            }
+            if (changed) {
+                simplify();
+            }
+        }
+    }
+
+    /**
+     * Marks the unknown cells among the given ones as safe or as mines.
+     *
+     * @param cells The cells to mark.
+     * @param value SAFE or MINE.
+     * @return true if any cell was unknown.
+     */
+    private boolean mark(int[] cells, byte value) {
+        boolean changed = false;
+        for (int cell : cells) {
+            if (known[cell] == UNKNOWN) {
+                known[cell] = value;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Removes the known cells from every constraint and drops the constraints
+     * that are left without cells.
+     */
+    private void simplify() {
+        List<Constraint> simplified = new ArrayList<>(constraints.size());
+        for (Constraint constraint : constraints) {
+            int count = 0;
+            for (int cell : constraint.cells) {
+                if (known[cell] == MINE) {
+                    constraint.mines--;
+                } else if (known[cell] == UNKNOWN) {
+                    constraint.cells[count++] = cell;
+                }
+            }
+            if (count > 0) {
+                constraint.cells = Arrays.copyOf(constraint.cells, count);
+                simplified.add(constraint);
+            }
+        }
+        constraints = simplified;
+    }
+
+    /**
+     * Returns whether every cell of the first sorted array is in the second.
+     *
+     * @param small The possible subset.
+     * @param large The possible superset.
+     * @return true if small is a subset of large.
+     */
+    private static boolean isSubset(int[] small, int[] large) {
+        int j = 0;
+        for (int cell : small) {
+            while (j < large.length && large[j] < cell) {
+                j++;
+            }
+            if (j == large.length || large[j] != cell) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the cells of the first sorted array that are not in the second.
+     *
+     * @param large The cells to keep.
+     * @param small The cells to remove, all of which are in large.
+     * @return The difference, in increasing order.
+     */
+    private static int[] difference(int[] large, int[] small) {
+        int[] difference = new int[large.length - small.length];
+        int count = 0, j = 0;
+        for (int cell : large) {
+            if (j < small.length && small[j] == cell) {
+                j++;
+            } else {
+                difference[count++] = cell;
+            }
+        }
+        return difference;
+    }
+
+    /**
+     * Computes the chance of every hidden cell holding a mine by enumerating the
+     * arrangements of mines of each independent group of frontier cells.
+     *
+     * @param probabilities Filled with the chance of each hidden cell holding a mine.
+     */
+    private void enumerate(double[] probabilities) {
+        int knownMines = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (known[cell] == MINE) {
+                knownMines++;
+            }
+        }
+        int minesLeft = engine.getTotalMines() - knownMines;
+
+        // Split the frontier into groups of cells linked by shared constraints
+        int[] group = new int[cellCount];
+        Arrays.fill(group, -1);
+        List<Group> groups = new ArrayList<>();
+        List<List<Constraint>> byCell = new ArrayList<>();
+        int[] frontierIndex = new int[cellCount];
+        Arrays.fill(frontierIndex, -1);
+        for (Constraint constraint : constraints) {
+            for (int cell : constraint.cells) {
+                if (frontierIndex[cell] < 0) {
+                    frontierIndex[cell] = byCell.size();
+                    byCell.add(new ArrayList<>());
+                }
+                byCell.get(frontierIndex[cell]).add(constraint);
+            }
+        }
+        for (Constraint constraint : constraints) {
+            int start = constraint.cells[0];
+            if (group[start] >= 0) {
+                continue;
+            }
+            Group current = new Group();
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            group[start] = groups.size();
+            queue.add(start);
+            while (!queue.isEmpty()) {
+                int cell = queue.poll();
+                current.cells.add(cell);
+                for (Constraint linked : byCell.get(frontierIndex[cell])) {
+                    if (!current.constraints.contains(linked)) {
+                        current.constraints.add(linked);
+                    }
+                    for (int other : linked.cells) {
+                        if (group[other] < 0) {
+                            group[other] = groups.size();
+                            queue.add(other);
+                        }
+                    }
+                }
+            }
+            groups.add(current);
+        }
+
+        int outside = 0; // unknown cells next to no number
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (known[cell] == UNKNOWN && group[cell] < 0) {
+                outside++;
+            }
+        }
+
+        List<Group> enumerated = new ArrayList<>();
+        for (Group current : groups) {
+            if (current.cells.size() <= MAX_ENUMERATED_CELLS) {
+                current.count();
+                enumerated.add(current);
+            } else {
+                outside += current.cells.size(); // too large, treated like the cells next to no number
+            }
+        }
+
+        // Combine the groups: the weight of a total of k frontier mines is the
+        // number of arrangements with k mines times C(outside, minesLeft - k)
+        double[] total = {1};
+        for (Group current : enumerated) {
+            total = convolve(total, current.solutions);
+        }
+        double[] placements = new double[total.length];
+        double[] logPlacements = logBinomials(outside, minesLeft, total.length);
+        double weight = 0, outsideMines = 0;
+        double maxLog = Double.NEGATIVE_INFINITY;
+        for (int k = 0; k < total.length; k++) {
+            if (total[k] > 0) {
+                maxLog = Math.max(maxLog, logPlacements[k]);
+            }
+        }
+        for (int k = 0; k < total.length; k++) {
+            if (total[k] > 0 && logPlacements[k] > Double.NEGATIVE_INFINITY) {
+                placements[k] = Math.exp(logPlacements[k] - maxLog);
+                weight += total[k] * placements[k];
+                outsideMines += total[k] * placements[k] * (minesLeft - k);
+            }
+        }
+
+        for (Group current : enumerated) {
+            double[] others = {1};
+            for (Group other : enumerated) {
+                if (other != current) {
+                    others = convolve(others, other.solutions);
+                }
+            }
+            for (int i = 0; i < current.cells.size(); i++) {
+                double mineWeight = 0;
+                boolean alwaysMine = true; // exact, so certain mines are not lost to rounding
+                for (int k = 0; k < current.solutions.length; k++) {
+                    for (int j = 0; j < others.length && k + j < placements.length; j++) {
+                        double arrangements = others[j] * placements[k + j];
+                        if (arrangements > 0 && current.solutions[k] > 0) {
+                            mineWeight += current.cellMines[i][k] * arrangements;
+                            alwaysMine &= current.cellMines[i][k] == current.solutions[k];
+                        }
+                    }
+                }
+                probabilities[current.cells.get(i)] = alwaysMine && mineWeight > 0 ? 1 : weight == 0 ? 0 : mineWeight / weight;
+            }
+        }
+
+        double outsideProbability = outside == 0 || weight == 0 ? 0 : outsideMines / weight / outside;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (known[cell] == SAFE && probabilities[cell] >= 0) {
+                probabilities[cell] = 0;
+            } else if (known[cell] == MINE && probabilities[cell] >= 0) {
+                probabilities[cell] = 1;
+            } else if (known[cell] == UNKNOWN && (group[cell] < 0 || !enumerated.contains(groups.get(group[cell])))) {
+                probabilities[cell] = outsideProbability;
+            }
+        }
+    }
+
+    /**
+     * A group of frontier cells that share no constraint with any other group.
+     */
+    private static final class Group {
+        final List<Integer> cells = new ArrayList<>();
+        final List<Constraint> constraints = new ArrayList<>();
+        double[] solutions; // number of arrangements by number of mines
+        double[][] cellMines; // arrangements with each cell holding a mine, by number of mines
+
+        /**
+         * Counts the arrangements of mines of the group that satisfy all its constraints.
+         */
+        void count() {
+            int size = cells.size();
+            solutions = new double[size + 1];
+            cellMines = new double[size][size + 1];
+            int[][] members = new int[constraints.size()][];
+            int[] remaining = new int[constraints.size()], open = new int[constraints.size()];
+            int[][] ofCell = new int[size][];
+            List<List<Integer>> linked = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                linked.add(new ArrayList<>());
+            }
+            for (int c = 0; c < constraints.size(); c++) {
+                Constraint constraint = constraints.get(c);
+                members[c] = new int[constraint.cells.length];
+                for (int m = 0; m < constraint.cells.length; m++) {
+                    int position = cells.indexOf(constraint.cells[m]);
+                    members[c][m] = position;
+                    linked.get(position).add(c);
+                }
+                remaining[c] = constraint.mines;
+                open[c] = constraint.cells.length;
+            }
+            for (int i = 0; i < size; i++) {
+                ofCell[i] = linked.get(i).stream().mapToInt(Integer::intValue).toArray();
+            }
+            search(0, 0, new boolean[size], ofCell, remaining, open);
+        }
+
+        /**
+         * Tries both values of the next cell, pruning as soon as a constraint can
+         * no longer be satisfied.
+         *
+         * @param position  The position of the cell to decide.
+         * @param mines     The number of mines placed so far.
+         * @param mine      The decided cells holding a mine.
+         * @param ofCell    The constraints of each cell.
+         * @param remaining The mines each constraint still needs.
+         * @param open      The undecided cells of each constraint.
+         */
+        private void search(int position, int mines, boolean[] mine, int[][] ofCell, int[] remaining, int[] open) {
+            if (position == mine.length) {
+                solutions[mines]++;
+                for (int i = 0; i < mine.length; i++) {
+                    if (mine[i]) {
+                        cellMines[i][mines]++;
+                    }
+                }
+                return;
+            }
+            for (int value = 0; value <= 1; value++) {
+                boolean possible = true;
+                for (int c : ofCell[position]) {
+                    open[c]--;
+                    remaining[c] -= value;
+                    if (remaining[c] < 0 || remaining[c] > open[c]) {
+                        possible = false;
+                    }
+                }
+                if (possible) {
+                    mine[position] = value == 1;
+                    search(position + 1, mines + value, mine, ofCell, remaining, open);
+                    mine[position] = false;
+                }
+                for (int c : ofCell[position]) {
+                    open[c]++;
+                    remaining[c] += value;
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiplies two distributions of arrangements by number of mines.
+     *
+     * @param first  The first distribution.
+     * @param second The second distribution.
+     * @return The distribution of the total number of mines.
+     */
+    private static double[] convolve(double[] first, double[] second) {
+        double[] product = new double[first.length + second.length - 1];
+        for (int i = 0; i < first.length; i++) {
+            if (first[i] != 0) {
+                for (int j = 0; j < second.length; j++) {
+                    product[i + j] += first[i] * second[j];
+                }
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Returns the natural logarithms of C(n, minesLeft - k) for k from 0 to
+     * count - 1, the number of ways to place the mines the frontier does not
+     * hold on the n cells next to no number. Each value is derived from the
+     * previous one, so the cost does not depend on the number of mines.
+     *
+     * @param n         The number of cells next to no number.
+     * @param minesLeft The number of mines not yet known.
+     * @param count     The number of values to compute.
+     * @return The logarithms, negative infinity where minesLeft - k is not between 0 and n.
+     */
+    private static double[] logBinomials(int n, int minesLeft, int count) {
+        double[] logs = new double[count];
+        Arrays.fill(logs, Double.NEGATIVE_INFINITY);
+        int first = Math.max(0, minesLeft - n); // the smallest k with minesLeft - k <= n
+        if (first >= count || minesLeft - first < 0) {
+            return logs;
+        }
+        int m = minesLeft - first;
+        double log = 0;
+        for (int i = 1; i <= Math.min(m, n - m); i++) {
+            log += Math.log(n - Math.min(m, n - m) + i) - Math.log(i);
+        }
+        logs[first] = log;
+        for (int k = first + 1; k < count && minesLeft - k >= 0; k++) {
+            m = minesLeft - k; // C(n, m) = C(n, m + 1) * (m + 1) / (n - m)
+            log += Math.log(m + 1) - Math.log(n - m);
+            logs[k] = log;
+        }
+        return logs;
+    }
+}
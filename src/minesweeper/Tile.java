@@ -6,25 +6,21 @@ import javafx.scene.image.ImageView;
 
 /**
  * A Tile represents a square in the Minesweeper game board.
- * It extends JavaFX Button class, and contains images for different tile states.
- * The Tile class also contains methods to get the state of the tile and set the flag.
+ * It extends JavaFX Button class, and displays one of the shared TileImages.
+ * The content of the square is kept by the BoardEngine, the Tile only displays it.
  * 
  * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
  * @version 1.0
 */
 public class Tile extends Button {
 	
-	private ImageView imageFlag, imageMine, imageExplosion, imageOpen, imageTile;
-	private int tileState; 
-	private Boolean noMine = false;
-	private int surroundingMines = 0;
-	public static final int MINE = -1, BLANK = 0, NUMBERED = 1;
+	private final ImageView imageView;
 	final static int width = 40, height = 40;
 
 	/**
 	 * Constructs a Tile object with default values.
-	 * Sets dimensions of the tile to a fixed value of 50x50 pixels.
-	 * Initializes images for different tile states.
+	 * Sets dimensions of the tile to a fixed value of 40x40 pixels.
+	 * Creates the single view that displays the tile's current image.
 	 */ 
 	public Tile() {
 
@@ -33,107 +29,32 @@ public class Tile extends Button {
 		this.setMaxWidth(width);
 		this.setMaxHeight(height);
 
-		imageFlag = new ImageView(new Image("file:Images/Flag.png"));
-		imageFlag.setFitHeight(height);
-		imageFlag.setFitWidth(width);
+		imageView = new ImageView(TileImages.getTile());
+		imageView.setFitHeight(height);
+		imageView.setFitWidth(width);
 
-		imageMine = new ImageView(new Image("file:Images/Mine.png"));
-		imageMine.setFitHeight(height);
-		imageMine.setFitWidth(width);
-
-		imageExplosion = new ImageView(new Image("file:Images/Explosion.png"));
-		imageExplosion.setFitHeight(height);
-		imageExplosion.setFitWidth(width);
-
-		imageOpen = new ImageView(new Image("file:Images/Open.png"));
-		imageOpen.setFitHeight(height);
-		imageOpen.setFitWidth(width);
-
-		imageTile = new ImageView(new Image("file:Images/Tile.png"));
-		imageTile.setFitHeight(height);
-		imageTile.setFitWidth(width);
-
-		setGraphic(imageTile);
-
-		tileState = 1;
-	}
-
-	/**
-	 * Returns the image used for a flagged tile.
-	 * @return imageFlag ImageView of the flagged tile.
-	 */
-	public ImageView getFlag() {
-		return imageFlag;
+		setGraphic(imageView);
 	}
 
 	/**
-	 * Returns the image used for a mine tile.
-	 * @return imageMine ImageView of the mine tile.
-	 */
-	public ImageView getMine() {
-		return imageMine;
-	}
-
-	/**
-	 * Returns the image used for an exploded mine tile.
-	 * @return imageExplosion ImageView of the exploded mine tile.
-	 */
-	public ImageView getExplosion() {
-		return imageExplosion;
-	}
-
-	/**
-	 * Returns the image used for an open tile.
-	 * @return imageOpen ImageView of the open tile.
-	 */
-	public ImageView getOpen() {
-		return imageOpen;
-	}
-
-	/**
-	 * Returns the image used for a closed tile.
-	 * @return imageTile ImageView of the closed tile.
-	 */
-	public ImageView getTile() {
-		return imageTile;
-	}
-
-	/**
-	 * Returns a Boolean indicating whether the tile contains a mine.
-	 * @return noMine Boolean indicating whether the tile contains a mine.
-	 */
-	public Boolean getNoMine() {
-		return noMine;
-	}
-
-	/**
-	 * Sets the tile to have no mine.
-	 */
-	public void setNoMine() {
-		noMine = true;
-	}
-
-	/** Returns the state of the tile.
-	 * @return The state of the tile (-1: Mine, 0: Blank, 1: Numbered -> surrounded by mine(s)).
-	 */
-	public int getTileState() {
-		return tileState;
-	}
-
-	/** Returns the number of mines surrounding the tile.
-	 * @return The number of surrounding mines.
+	 * Displays the given image on the tile.
+	 * @param image One of the images of TileImages.
 	 */
-	public int getSurroundingMines() {
-		return this.surroundingMines;
+	public void showImage(Image image) {
+		imageView.setImage(image);
+		setGraphic(imageView);
 	}
 
 	/**
-	 * Sets the state of the tile.
-	 * @param state The state of the tile (-1: Mine, 0: Blank, 1: Numbered -> surrounded by mine(s)).
+	 * Displays an uncovered tile with the number of its surrounding mines,
+	 * or an empty tile if there are none.
+	 * @param surroundingMines The number of mines surrounding the tile.
 	 */
-	public void setTileState(int state) {
-		this.tileState = state;
-		this.surroundingMines += (state == 1) ? 1 : 0;
+	public void showNumber(int surroundingMines) {
+		setGraphic(null);
+		if (surroundingMines != 0) {
+			setText(Integer.toString(surroundingMines));
+		}
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package minesweeper;
+
+import javafx.scene.Node;
+import javafx.scene.layout.GridPane;
+
+/**
+ * Displays the board as a GridPane holding one {@link Tile} button per cell.
+ *
+ * <p>
+ * This is the classic view of the game. Since every cell is a full Button it is
+ * meant for the 9x9 and 16x16 boards; larger boards should use the
+ * {@link CanvasBoardView}.
+ * </p>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public class TileBoardView implements BoardView {
+    private final BoardEngine engine;
+    private final Tile tiles[][];
+    private final GridPane grid;
+
+    /**
+     * Creates the tiles of the board and forwards their clicks to it.
+     *
+     * @param board The board to display.
+     */
+    public TileBoardView(Board board) {
+        engine = board.getEngine();
+        tiles = new Tile[engine.getWidth()][engine.getHeight()];
+        grid = new GridPane();
+        for (int col = 0; col < engine.getHeight(); col++) {
+            for (int row = 0; row < engine.getWidth(); row++) {
+                Tile tile = new Tile();
+                tiles[row][col] = tile;
+                int cell = engine.index(row, col);
+                tile.setOnMouseClicked(e -> board.handleClick(cell, e.getButton(), e.getClickCount()));
+                grid.add(tile, row, col);
+            }
+        }
+    }
+
+    @Override
+    public Node getNode() {
+        return grid;
+    }
+
+    @Override
+    public double getViewWidth() {
+        return engine.getWidth() * Tile.width;
+    }
+
+    @Override
+    public void drawCell(int cell) {
+        Tile tile = tileAt(cell);
+        switch (engine.getCellState(cell)) {
+            case BoardEngine.FLAGGED:
+                tile.showImage(TileImages.getFlag());
+                break;
+            case BoardEngine.HIDDEN:
+                tile.showImage(TileImages.getTile());
+                break;
+            default:
+                if (engine.getTileState(cell) == BoardEngine.MINE) { // Mine revealed by the super-mine
+                    tile.showImage(TileImages.getMine());
+                    tile.setDisable(true);
+                } else {
+                    tile.showNumber(engine.getSurroundingMines(cell));
+                }
+        }
+    }
+
+    @Override
+    public void showExplosion(int cell) {
+        tileAt(cell).showImage(TileImages.getExplosion());
+    }
+
+    @Override
+    public void showAllMines() {
+        for (int cell = 0; cell < engine.getCellCount(); cell++) {
+            if (engine.isMine(cell)) {
+                tileAt(cell).showImage(TileImages.getMine());
+            }
+        }
+    }
+
+    /**
+     * Returns the tile displaying the given cell.
+     *
+     * @param cell The flat index of the cell.
+     * @return The Tile of the cell.
+     */
+    private Tile tileAt(int cell) {
+        return tiles[engine.getX(cell)][engine.getY(cell)];
+    }
+}
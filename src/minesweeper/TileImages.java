@@ -0,0 +1,77 @@
+package minesweeper;
+
+import javafx.scene.image.Image;
+
+/**
+ * Holds the images used to draw the tiles of the Minesweeper board.
+ *
+ * <p>
+ * Every image is decoded once per process, the first time any of them is
+ * requested, and then shared by all tiles of all boards. Starting a game
+ * therefore no longer decodes any PNG files, whatever the size of the board.
+ * </p>
+ *
+ * @author Χρυσοβαλάντης-Κων/νος Ανδρεάς
+ * @version 1.0
+ */
+public final class TileImages {
+
+    private TileImages() {
+    }
+
+    /**
+     * Loads the images the first time the class is accessed. The JVM guarantees
+     * that this happens once, even if several threads ask for an image.
+     */
+    private static class Holder {
+        static final Image FLAG = load("Flag");
+        static final Image MINE = load("Mine");
+        static final Image EXPLOSION = load("Explosion");
+        static final Image OPEN = load("Open");
+        static final Image TILE = load("Tile");
+
+        private static Image load(String name) {
+            return new Image("file:Images/" + name + ".png", Tile.width, Tile.height, false, true);
+        }
+    }
+
+    /**
+     * Returns the image used for a flagged tile.
+     * @return the flag image
+     */
+    public static Image getFlag() {
+        return Holder.FLAG;
+    }
+
+    /**
+     * Returns the image used for a mine tile.
+     * @return the mine image
+     */
+    public static Image getMine() {
+        return Holder.MINE;
+    }
+
+    /**
+     * Returns the image used for an exploded mine tile.
+     * @return the explosion image
+     */
+    public static Image getExplosion() {
+        return Holder.EXPLOSION;
+    }
+
+    /**
+     * Returns the image used for an open tile.
+     * @return the open tile image
+     */
+    public static Image getOpen() {
+        return Holder.OPEN;
+    }
+
+    /**
+     * Returns the image used for a closed tile.
+     * @return the closed tile image
+     */
+    public static Image getTile() {
+        return Holder.TILE;
+    }
+}